@@ -0,0 +1,101 @@
+package lexfo.scalpel;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+  Measures the latency and throughput of ScalpelExecutor round trips,
+  from the task submission to its result, with one or several threads submitting tasks.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.SampleTime, Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExecutorBenchmark {
+
+	/**
+		The interpreter only starts when the script defines at least one hook.
+	*/
+	private static final String SCRIPT = String.join(
+		"\n",
+		"from pyscalpel import Request",
+		"",
+		"",
+		"def request(req: Request) -> Request | None:",
+		"    return None",
+		""
+	);
+
+	private ScalpelExecutor executor;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		// Only report errors, logging would be benchmarked too otherwise.
+		ScalpelLogger.setLevel(ScalpelLogger.Level.ERROR);
+
+		executor = ExecutorHarness.start(new FakeMontoya(), SCRIPT);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.disable();
+	}
+
+	/**
+		A task doing almost nothing in Python, to measure the executor's own overhead.
+	*/
+	private Optional<Object> emptyTask() {
+		return executor.safeJepInvoke(
+			Constants.SET_LOG_LEVEL_CB_NAME,
+			new Object[] { ScalpelLogger.Level.ERROR.value() },
+			Map.of(),
+			Object.class
+		);
+	}
+
+	/**
+		A task returning Python objects converted by Jep.
+	*/
+	@SuppressWarnings("rawtypes")
+	private Optional<List> callables() {
+		return executor.safeJepInvoke(Constants.GET_CB_NAME, List.class);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Optional<Object> emptyRoundTrip() {
+		return emptyTask();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Optional<Object> emptyRoundTripContended() {
+		return emptyTask();
+	}
+
+	@Benchmark
+	@Threads(1)
+	@SuppressWarnings("rawtypes")
+	public Optional<List> callablesRoundTrip() {
+		return callables();
+	}
+
+	@Benchmark
+	@Threads(8)
+	@SuppressWarnings("rawtypes")
+	public Optional<List> callablesRoundTripContended() {
+		return callables();
+	}
+}
@@ -0,0 +1,83 @@
+package lexfo.scalpel;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+  Measures the Java helpers converting data passed between Python and Burp,
+  across body sizes.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MarshallingBenchmark {
+
+	/**
+		The converted bytes, only the bytes benchmarks are run for every size.
+	*/
+	@State(Scope.Benchmark)
+	public static class Body {
+
+		@Param({ "64", "4096", "65536", "1048576" })
+		public int size;
+
+		private byte[] bytes;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			bytes = new byte[size];
+			new Random(0).nextBytes(bytes);
+		}
+	}
+
+	/**
+		Implements a Montoya interface, like the objects passed to Python.
+	*/
+	private final HttpRequest montoyaObject = Stubs.stub(
+		HttpRequest.class,
+		Map.of()
+	);
+
+	/**
+		Doesn't implement any Montoya interface, so every superclass and interface is visited.
+	*/
+	private final Object otherObject = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		FakeHttp.installObjectFactory();
+	}
+
+	@Benchmark
+	public int[] toPythonBytes(Body body) {
+		return PythonUtils.toPythonBytes(body.bytes);
+	}
+
+	@Benchmark
+	public ByteArray toByteArray(Body body) {
+		return PythonUtils.toByteArray(body.bytes);
+	}
+
+	@Benchmark
+	public String getClassNameMontoya() {
+		return UnObfuscator.getClassName(montoyaObject);
+	}
+
+	@Benchmark
+	public String getClassNameOther() {
+		return UnObfuscator.getClassName(otherObject);
+	}
+}
@@ -0,0 +1,545 @@
+package lexfo.scalpel;
+
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.message.HttpHeader;
+import burp.api.montoya.http.message.HttpMessage;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+  Replays a HAR file or a synthetic traffic mix through ScalpelHttpRequestHandler and a user script,
+  against a local server (test/server.js by default), and reports the throughput, latency percentiles and errors.
+  <p>
+  Each request goes through the request hook, is sent to the server, and its response through the response hook,
+  like in the Burp proxy. With --editors, the Scalpel tabs of both messages are also rendered,
+  so scripts only defining editor hooks (e.g. base64.py) are exercised too.
+  <p>
+  Run with ./gradlew loadTest --args="...", see {@link #USAGE}.
+*/
+public final class LoadTest {
+
+	private static final String USAGE = String.join(
+		"\n",
+		"Usage: LoadTest [options]",
+		"  --script <file>     User script, relative paths are resolved against the samples. (default.py)",
+		"  --har <file>        Replay the requests of a HAR file instead of the synthetic mix.",
+		"  --target <url>      Server the requests are sent to. (http://localhost:3000)",
+		"  --threads <n>       Concurrent requests. (4)",
+		"  --requests <n>      Measured requests. (2000)",
+		"  --warmup <n>        Requests sent before measuring. (200)",
+		"  --editors           Also render the Scalpel tabs of every message.",
+		"  --json <file>       Also write the results as JSON, to compare runs."
+	);
+
+	/**
+		Headers the Java HTTP client sets itself.
+	*/
+	private static final Set<String> RESTRICTED_HEADERS = Set.of(
+		"host",
+		"content-length",
+		"connection",
+		"expect",
+		"upgrade"
+	);
+
+	/** Significant decimal digits kept by the histograms. */
+	private static final int PRECISION = 3;
+
+	/**
+		The command line options.
+	*/
+	record Options(
+		Path script,
+		Optional<Path> har,
+		URI target,
+		int threads,
+		long requests,
+		long warmup,
+		boolean editors,
+		Optional<Path> json
+	) {
+		static Options parse(String[] args) {
+			Path script = RessourcesUnpacker.DEFAULT_SCRIPT_PATH;
+			Optional<Path> har = Optional.empty();
+			URI target = URI.create("http://localhost:3000");
+			int threads = 4;
+			long requests = 2000;
+			long warmup = 200;
+			boolean editors = false;
+			Optional<Path> json = Optional.empty();
+
+			for (int i = 0; i < args.length; i++) {
+				final String value = i + 1 < args.length ? args[i + 1] : "";
+				switch (args[i]) {
+					case "--script" -> {
+						script = RessourcesUnpacker.SAMPLES_PATH.resolve(value);
+						i++;
+					}
+					case "--har" -> {
+						har = Optional.of(Path.of(value));
+						i++;
+					}
+					case "--target" -> {
+						target = URI.create(value);
+						i++;
+					}
+					case "--threads" -> {
+						threads = Integer.parseInt(value);
+						i++;
+					}
+					case "--requests" -> {
+						requests = Long.parseLong(value);
+						i++;
+					}
+					case "--warmup" -> {
+						warmup = Long.parseLong(value);
+						i++;
+					}
+					case "--editors" -> editors = true;
+					case "--help" -> {
+						System.out.println(USAGE);
+						System.exit(0);
+					}
+					case "--json" -> {
+						json = Optional.of(Path.of(value));
+						i++;
+					}
+					default -> throw new IllegalArgumentException(
+						"Unknown option " + args[i] + "\n" + USAGE
+					);
+				}
+			}
+			return new Options(
+				script,
+				har,
+				target,
+				threads,
+				requests,
+				warmup,
+				editors,
+				json
+			);
+		}
+	}
+
+	/**
+		The measures of a run.
+	*/
+	static final class Results {
+
+		/** Time from the request hook call to the response hook return. (µs) */
+		final Histogram roundTrip = new ConcurrentHistogram(PRECISION);
+
+		/** Time spent in Scalpel: hooks and rendered tabs. (µs) */
+		final Histogram scalpel = new ConcurrentHistogram(PRECISION);
+
+		final LongAdder completed = new LongAdder();
+		final LongAdder networkErrors = new LongAdder();
+		final LongAdder serverErrors = new LongAdder();
+		final LongAdder editorErrors = new LongAdder();
+
+		void reset() {
+			roundTrip.reset();
+			scalpel.reset();
+			completed.reset();
+			networkErrors.reset();
+			serverErrors.reset();
+			editorErrors.reset();
+		}
+	}
+
+	private final Options options;
+	private final URI target;
+	private final HttpService service;
+	private final ScalpelExecutor executor;
+	private final ScalpelHttpRequestHandler handler;
+	private final HttpClient client;
+	private final Results results = new Results();
+	private final List<String> requestTabs;
+	private final List<String> responseTabs;
+
+	/**
+		Starts the executor on the script.
+
+		@param options The command line options.
+		@param montoya The API given to the executor.
+	*/
+	LoadTest(Options options, FakeMontoya montoya) throws IOException {
+		this.options = options;
+		this.target = options.target();
+		this.service =
+			FakeHttp.httpService(
+				target.getHost(),
+				target.getPort() != -1
+					? target.getPort()
+					: "https".equals(target.getScheme()) ? 443 : 80,
+				"https".equals(target.getScheme())
+			);
+
+		// Only report errors, logging would be measured too otherwise.
+		ScalpelLogger.setLevel(ScalpelLogger.Level.ERROR);
+		this.executor =
+			ExecutorHarness.start(montoya, Files.readString(options.script()));
+		this.handler =
+			new ScalpelHttpRequestHandler(montoya.api(), null, executor);
+		this.client =
+			HttpClient
+				.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+
+		this.requestTabs = tabs(Constants.REQ_EDIT_PREFIX);
+		this.responseTabs = tabs(Constants.RES_EDIT_PREFIX);
+	}
+
+	/**
+		Lists the tabs defined by the script, from its "in" hooks.
+	*/
+	private List<String> tabs(String prefix) {
+		final String inPrefix = prefix + Constants.IN_SUFFIX;
+		return executor
+			.getCallables()
+			.stream()
+			.map(ScalpelExecutor.CallableData::name)
+			.filter(name -> name.startsWith(inPrefix))
+			.map(name -> name.substring(inPrefix.length()).replaceFirst("^_", ""))
+			.toList();
+	}
+
+	/**
+		Converts a request returned by the hook to a Java HTTP client request, sent to the target.
+	*/
+	private java.net.http.HttpRequest toJava(HttpRequest request) {
+		final byte[] body = request.body().getBytes();
+		final java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest
+			.newBuilder(target.resolve(request.path()))
+			.timeout(Duration.ofSeconds(30))
+			.method(
+				request.method(),
+				body.length == 0
+					? java.net.http.HttpRequest.BodyPublishers.noBody()
+					: java.net.http.HttpRequest.BodyPublishers.ofByteArray(body)
+			);
+
+		for (final HttpHeader header : request.headers()) {
+			final String name = header.name();
+			if (
+				!name.startsWith(":") &&
+				!RESTRICTED_HEADERS.contains(name.toLowerCase())
+			) {
+				builder.header(name, header.value());
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+		Converts a Java HTTP client response to the raw response the response hook receives.
+	*/
+	private static HttpResponse fromJava(
+		java.net.http.HttpResponse<byte[]> response
+	) {
+		final StringBuilder head = new StringBuilder("HTTP/1.1 ")
+			.append(response.statusCode())
+			.append("\r\n");
+		response
+			.headers()
+			.map()
+			.forEach((name, values) -> {
+				if (!name.startsWith(":")) {
+					values.forEach(value ->
+						head.append(name).append(": ").append(value).append("\r\n")
+					);
+				}
+			});
+		head.append("\r\n");
+
+		final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+		raw.writeBytes(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+		raw.writeBytes(response.body());
+		return FakeHttp.httpResponse(raw.toByteArray());
+	}
+
+	/**
+		Renders the Scalpel tabs of a message, as when it is selected in Burp.
+
+		@return Whether the tabs could be rendered.
+	*/
+	private boolean renderTabs(
+		HttpMessage message,
+		HttpRequest request,
+		List<String> tabs
+	) {
+		return (
+			tabs.isEmpty() ||
+			executor
+				.callEditorCallbacksIn(message, request, service, tabs)
+				.isPresent()
+		);
+	}
+
+	/**
+		Sends a request through the hooks and the server.
+
+		@param message The request to send.
+		@param results The results to record the request in.
+	*/
+	void replay(Traffic.Message message, Results results) {
+		final long start = System.nanoTime();
+		long scalpelNanos = 0;
+		boolean editorsFailed = false;
+
+		final HttpRequest request = FakeHttp.httpRequest(service, message.raw());
+		long stageStart = System.nanoTime();
+		final HttpRequest sent = handler
+			.handleHttpRequestToBeSent(
+				FakeHttp.requestToBeSent(request, ToolType.PROXY)
+			)
+			.request();
+		if (options.editors()) {
+			editorsFailed |= !renderTabs(sent, null, requestTabs);
+		}
+		scalpelNanos += System.nanoTime() - stageStart;
+
+		final java.net.http.HttpResponse<byte[]> received;
+		try {
+			received =
+				client.send(
+					toJava(sent),
+					java.net.http.HttpResponse.BodyHandlers.ofByteArray()
+				);
+		} catch (IOException e) {
+			results.networkErrors.increment();
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		stageStart = System.nanoTime();
+		final HttpResponse response = handler
+			.handleHttpResponseReceived(
+				FakeHttp.responseReceived(fromJava(received), sent, ToolType.PROXY)
+			)
+			.response();
+		if (options.editors()) {
+			editorsFailed |= !renderTabs(response, sent, responseTabs);
+		}
+		final long end = System.nanoTime();
+		scalpelNanos += end - stageStart;
+
+		if (response.statusCode() >= 500) {
+			results.serverErrors.increment();
+		}
+		if (editorsFailed) {
+			results.editorErrors.increment();
+		}
+		results.completed.increment();
+		results.roundTrip.recordValue(TimeUnit.NANOSECONDS.toMicros(end - start));
+		results.scalpel.recordValue(TimeUnit.NANOSECONDS.toMicros(scalpelNanos));
+	}
+
+	/**
+		Replays requests from concurrent threads.
+
+		@param traffic The requests to replay.
+		@param count The number of requests to send.
+		@return The elapsed time in nanoseconds.
+	*/
+	long run(Traffic traffic, long count) throws InterruptedException {
+		final AtomicLong next = new AtomicLong();
+		final ExecutorService pool = Executors.newFixedThreadPool(
+			options.threads()
+		);
+
+		final long start = System.nanoTime();
+		for (int i = 0; i < options.threads(); i++) {
+			pool.execute(() -> {
+				long index;
+				while ((index = next.getAndIncrement()) < count) {
+					replay(traffic.get(index), results);
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		return System.nanoTime() - start;
+	}
+
+	private static Map<String, Object> percentiles(Histogram histogram) {
+		final Map<String, Object> percentiles = new LinkedHashMap<>();
+		percentiles.put("p50", histogram.getValueAtPercentile(50));
+		percentiles.put("p90", histogram.getValueAtPercentile(90));
+		percentiles.put("p99", histogram.getValueAtPercentile(99));
+		percentiles.put("p99.9", histogram.getValueAtPercentile(99.9));
+		percentiles.put("max", histogram.getMaxValue());
+		return percentiles;
+	}
+
+	private static String percentileRow(String name, Histogram histogram) {
+		return String.format(
+			"  %-12s %9.2f %9.2f %9.2f %9.2f %9.2f",
+			name,
+			histogram.getValueAtPercentile(50) / 1000.0,
+			histogram.getValueAtPercentile(90) / 1000.0,
+			histogram.getValueAtPercentile(99) / 1000.0,
+			histogram.getValueAtPercentile(99.9) / 1000.0,
+			histogram.getMaxValue() / 1000.0
+		);
+	}
+
+	/**
+		Prints the results, and writes them as JSON when requested.
+
+		@param elapsedNanos The duration of the measured run.
+	*/
+	void report(long elapsedNanos) throws IOException {
+		final double seconds = elapsedNanos / 1e9;
+		final long completed = results.completed.sum();
+		final List<HookMetrics.Snapshot> hooks = HookMetrics.snapshot();
+		final long hookExceptions = hooks
+			.stream()
+			.mapToLong(HookMetrics.Snapshot::exceptions)
+			.sum();
+
+		final List<String> lines = new ArrayList<>();
+		lines.add("");
+		lines.add(
+			String.format(
+				"%d requests in %.2f s: %.1f req/s (%d threads, script %s)",
+				completed,
+				seconds,
+				completed / seconds,
+				options.threads(),
+				options.script().getFileName()
+			)
+		);
+		lines.add("");
+		lines.add(
+			String.format(
+				"  %-12s %9s %9s %9s %9s %9s",
+				"(ms)",
+				"p50",
+				"p90",
+				"p99",
+				"p99.9",
+				"max"
+			)
+		);
+		lines.add(percentileRow("round trip", results.roundTrip));
+		lines.add(percentileRow("scalpel", results.scalpel));
+		lines.add("");
+		lines.add(
+			String.format(
+				"Errors: %d network, %d HTTP 5xx, %d hook exceptions, %d tab renders",
+				results.networkErrors.sum(),
+				results.serverErrors.sum(),
+				hookExceptions,
+				results.editorErrors.sum()
+			)
+		);
+		lines.add("");
+		lines.add(
+			String.format(
+				"  %-32s %8s %8s %8s %10s %10s",
+				"hook",
+				"calls",
+				"none",
+				"raised",
+				"p50 (µs)",
+				"p99 (µs)"
+			)
+		);
+		hooks.forEach(hook ->
+			lines.add(
+				String.format(
+					"  %-32s %8d %8d %8d %10d %10d",
+					hook.hook(),
+					hook.calls(),
+					hook.rejected(),
+					hook.exceptions(),
+					hook.execP50(),
+					hook.execP99()
+				)
+			)
+		);
+		lines.forEach(System.out::println);
+
+		if (options.json().isPresent()) {
+			final Map<String, Object> json = new LinkedHashMap<>();
+			json.put("script", options.script().toString());
+			json.put("threads", options.threads());
+			json.put("requests", completed);
+			json.put("seconds", seconds);
+			json.put("throughput", completed / seconds);
+			json.put("roundTripMicros", percentiles(results.roundTrip));
+			json.put("scalpelMicros", percentiles(results.scalpel));
+			json.put("networkErrors", results.networkErrors.sum());
+			json.put("serverErrors", results.serverErrors.sum());
+			json.put("hookExceptions", hookExceptions);
+			json.put("tabRenderErrors", results.editorErrors.sum());
+			json.put("hooks", hooks);
+			new ObjectMapper()
+				.writerWithDefaultPrettyPrinter()
+				.writeValue(options.json().get().toFile(), json);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		final Options options = Options.parse(args);
+		final Traffic traffic = options.har().isPresent()
+			? Traffic.fromHar(options.har().get(), options.target())
+			: Traffic.synthetic(options.target(), 0);
+
+		System.out.println(
+			"Replaying " +
+			traffic.size() +
+			" distinct requests to " +
+			options.target() +
+			" (start test/server.js with `node server.js` first)"
+		);
+
+		// The default script is read from the extracted samples.
+		RessourcesUnpacker.extractRessourcesToHome();
+
+		final FakeMontoya montoya = new FakeMontoya();
+		final LoadTest test = new LoadTest(options, montoya);
+		try {
+			test.run(traffic, options.warmup());
+			test.results.reset();
+			HookMetrics.reset();
+
+			test.report(test.run(traffic, options.requests()));
+		} finally {
+			test.executor.disable();
+			montoya.unload();
+		}
+
+		// The interpreter thread isn't a daemon.
+		System.exit(0);
+	}
+}
@@ -0,0 +1,581 @@
+package lexfo.scalpel;
+
+import burp.api.montoya.core.ToolSource;
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import burp.api.montoya.ui.editor.extension.EditorCreationContext;
+import burp.api.montoya.ui.editor.extension.EditorMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+  Pushes many messages and hot reloads through ScalpelExecutor, sampling the JVM heap, the process RSS
+  and the Python tracemalloc statistics, to find what grows over a long Burp session.
+  <p>
+  Messages go through the request and response hooks of ScalpelHttpRequestHandler, without any network,
+  while the user script is touched at a regular interval to trigger hot reloads,
+  which recreate the interpreter (taskLoop, launchTaskRunner) and the live editors (resetEditors).
+  <p>
+  Memory that keeps growing across the run is flagged, and the allocation sites that grew the most are named.
+  The exit status is 1 when a growth is flagged, so it can run in CI.
+  Run with ./gradlew soakTest --args="...", see {@link #USAGE}.
+*/
+public final class SoakTest {
+
+	private static final String USAGE = String.join(
+		"\n",
+		"Usage: SoakTest [options]",
+		"  --script <file>     User script, relative paths are resolved against the samples. (default.py)",
+		"  --messages <n>      Messages sent through the hooks. (1000000)",
+		"  --reloads <n>       Hot reloads spread over the run. (200)",
+		"  --threads <n>       Concurrent messages. (4)",
+		"  --samples <n>       Memory samples over the run. (50)",
+		"  --editors <n>       Live editors recreated by each reload. (4)",
+		"  --json <file>       Also write the samples and trends as JSON."
+	);
+
+	/**
+		Share of the first samples ignored by the trends, while caches and the JIT warm up.
+	*/
+	private static final double WARMUP_SHARE = 0.2;
+
+	/**
+		Growth between the first and last quarters of the run below which memory is considered stable.
+	*/
+	private static final double GROWTH_TOLERANCE = 0.05;
+
+	/** Number of allocation sites sampled and reported. */
+	private static final int TOP_SITES = 10;
+
+	/**
+		The command line options.
+	*/
+	record Options(
+		Path script,
+		long messages,
+		int reloads,
+		int threads,
+		int samples,
+		int editors,
+		Optional<Path> json
+	) {
+		static Options parse(String[] args) {
+			Path script = RessourcesUnpacker.DEFAULT_SCRIPT_PATH;
+			long messages = 1_000_000;
+			int reloads = 200;
+			int threads = 4;
+			int samples = 50;
+			int editors = 4;
+			Optional<Path> json = Optional.empty();
+
+			for (int i = 0; i < args.length; i++) {
+				final String value = i + 1 < args.length ? args[i + 1] : "";
+				switch (args[i]) {
+					case "--script" -> {
+						script = RessourcesUnpacker.SAMPLES_PATH.resolve(value);
+						i++;
+					}
+					case "--messages" -> {
+						messages = Long.parseLong(value);
+						i++;
+					}
+					case "--reloads" -> {
+						reloads = Integer.parseInt(value);
+						i++;
+					}
+					case "--threads" -> {
+						threads = Integer.parseInt(value);
+						i++;
+					}
+					case "--samples" -> {
+						samples = Integer.parseInt(value);
+						i++;
+					}
+					case "--editors" -> {
+						editors = Integer.parseInt(value);
+						i++;
+					}
+					case "--json" -> {
+						json = Optional.of(Path.of(value));
+						i++;
+					}
+					case "--help" -> {
+						System.out.println(USAGE);
+						System.exit(0);
+					}
+					default -> throw new IllegalArgumentException(
+						"Unknown option " + args[i] + "\n" + USAGE
+					);
+				}
+			}
+			return new Options(
+				script,
+				messages,
+				Math.max(0, reloads),
+				threads,
+				Math.max(1, samples),
+				editors,
+				json
+			);
+		}
+	}
+
+	/**
+		The memory usage at a point of the run.
+
+		@param messages The number of messages sent so far.
+		@param generation The interpreter generation, incremented by each (re)load.
+		@param heapBytes The JVM heap used after a full GC.
+		@param rssBytes The resident set size of the process, -1 when unavailable.
+		@param pythonBytes The memory traced by tracemalloc, -1 when unavailable.
+		@param pythonObjects The objects tracked by the Python GC, -1 when unavailable.
+		@param threads The live JVM threads.
+		@param sites The largest Python allocation sites, in bytes.
+	*/
+	record Sample(
+		long messages,
+		long generation,
+		long heapBytes,
+		long rssBytes,
+		long pythonBytes,
+		long pythonObjects,
+		long threads,
+		Map<String, Long> sites
+	) {}
+
+	/**
+		The evolution of a measure over the run, after the warmup.
+
+		@param name The measure.
+		@param first The median of the first quarter.
+		@param last The median of the last quarter.
+		@param perMillionMessages The growth per million messages, from a linear regression.
+		@param growing Whether the measure grew from quarter to quarter, beyond the tolerance.
+	*/
+	record Trend(
+		String name,
+		long first,
+		long last,
+		double perMillionMessages,
+		boolean growing
+	) {}
+
+	private final Options options;
+	private final FakeMontoya montoya;
+	private final ScalpelExecutor executor;
+	private final ScalpelHttpRequestHandler handler;
+	private final HttpService service;
+	private final Traffic traffic;
+	private final Path script;
+	private final List<Sample> samples = new CopyOnWriteArrayList<>();
+	private final LongAdder completed = new LongAdder();
+	private final AtomicLong scriptTimestamp = new AtomicLong();
+	private long loggedErrors = 0;
+
+	/**
+		Live editors, recreated on each reload.
+	*/
+	private final List<Object> editors = new ArrayList<>();
+
+	SoakTest(Options options, FakeMontoya montoya) throws IOException {
+		this.options = options;
+		this.montoya = montoya;
+
+		// Only report errors, the logs would be measured too otherwise.
+		ScalpelLogger.setLevel(ScalpelLogger.Level.ERROR);
+		this.executor =
+			ExecutorHarness.start(montoya, Files.readString(options.script()));
+		this.handler =
+			new ScalpelHttpRequestHandler(montoya.api(), null, executor);
+		this.service = FakeHttp.httpService("localhost", 3000, false);
+		this.traffic = Traffic.synthetic(URI.create("http://localhost:3000"), 0);
+		this.script = executor.getConfig().getUserScriptPath();
+		this.scriptTimestamp.set(Files.getLastModifiedTime(script).toMillis());
+
+		createEditors();
+	}
+
+	/**
+		Creates editors like Burp does when a message is displayed, so reloads recreate their tabs.
+	*/
+	private void createEditors() {
+		if (options.editors() <= 0) {
+			return;
+		}
+
+		final ToolSource source = Stubs.stub(
+			ToolSource.class,
+			Map.of("toolType", __ -> ToolType.PROXY, "isFromTool", __ -> true)
+		);
+		final EditorCreationContext context = Stubs.stub(
+			EditorCreationContext.class,
+			Map.of("toolSource", __ -> source, "editorMode", __ -> EditorMode.DEFAULT)
+		);
+
+		try {
+			final ScalpelEditorProvider provider = new ScalpelEditorProvider(
+				montoya.api(),
+				executor
+			);
+			for (int i = 0; i < options.editors(); i++) {
+				editors.add(
+					i % 2 == 0
+						? provider.provideHttpRequestEditor(context)
+						: provider.provideHttpResponseEditor(context)
+				);
+			}
+			executor.setEditorsProvider(provider);
+			montoya.unloadingHandlers.add(provider::dispose);
+		} catch (RuntimeException e) {
+			System.err.println("Editors unavailable, reloads won't recreate any: " + e);
+		}
+	}
+
+	/**
+		Sends a message through the request and response hooks, with a response echoing the request body.
+	*/
+	private void send(long index) {
+		final HttpRequest request = FakeHttp.httpRequest(
+			service,
+			traffic.get(index).raw()
+		);
+		final HttpRequest sent = handler
+			.handleHttpRequestToBeSent(
+				FakeHttp.requestToBeSent(request, ToolType.PROXY)
+			)
+			.request();
+
+		final byte[] body = sent.body().getBytes();
+		final HttpResponse response = FakeHttp.httpResponse(
+			(
+				"HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " +
+				body.length +
+				"\r\n\r\n" +
+				new String(body, StandardCharsets.ISO_8859_1)
+			)
+		);
+		handler.handleHttpResponseReceived(
+			FakeHttp.responseReceived(response, sent, ToolType.PROXY)
+		);
+		completed.increment();
+	}
+
+	/**
+		Touches the user script, the executor then reloads the interpreter and the editors.
+	*/
+	private void reload() {
+		try {
+			// Always move forward, file times may have a coarse resolution.
+			Files.setLastModifiedTime(
+				script,
+				FileTime.fromMillis(scriptTimestamp.addAndGet(1000))
+			);
+		} catch (IOException e) {
+			System.err.println("Failed to touch the script: " + e);
+		}
+	}
+
+	private static long readRss() {
+		try {
+			for (final String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+				if (line.startsWith("VmRSS:")) {
+					// VmRSS:	  123456 kB
+					return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+				}
+			}
+		} catch (IOException | NumberFormatException e) {
+			// Not on Linux.
+		}
+		return -1;
+	}
+
+	/**
+		Samples the memory usage, after a full GC so the heap only holds live objects.
+	*/
+	@SuppressWarnings("unchecked")
+	private Sample sample() {
+		System.gc();
+
+		final Optional<Map<String, Object>> python = executor
+			.safeJepInvoke(
+				Constants.MEMORY_USAGE_CB_NAME,
+				new Object[] { TOP_SITES },
+				Map.of(),
+				Map.class
+			)
+			.map(m -> (Map<String, Object>) m);
+
+		final Map<String, Long> sites = new LinkedHashMap<>();
+		python
+			.map(p -> (List<List<Object>>) p.get("sites"))
+			.ifPresent(list ->
+				list.forEach(site ->
+					sites.put((String) site.get(0), ((Number) site.get(1)).longValue())
+				)
+			);
+
+		// Errors are counted and dropped, the kept logs would be measured otherwise.
+		loggedErrors += montoya.errors.size();
+		montoya.errors.clear();
+		montoya.output.clear();
+
+		return new Sample(
+			completed.sum(),
+			executor.getInterpreterGeneration(),
+			ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+			readRss(),
+			python.map(p -> ((Number) p.get("traced")).longValue()).orElse(-1L),
+			python.map(p -> ((Number) p.get("objects")).longValue()).orElse(-1L),
+			ManagementFactory.getThreadMXBean().getThreadCount(),
+			sites
+		);
+	}
+
+	/**
+		Sends the messages and reloads from concurrent threads, sampling the memory on the way.
+	*/
+	void run() throws InterruptedException {
+		final AtomicLong next = new AtomicLong();
+		final long reloadInterval = options.reloads() > 0
+			? Math.max(1, options.messages() / options.reloads())
+			: Long.MAX_VALUE;
+		final long sampleInterval = Math.max(
+			1,
+			options.messages() / options.samples()
+		);
+
+		final ExecutorService pool = Executors.newFixedThreadPool(
+			options.threads()
+		);
+		for (int i = 0; i < options.threads(); i++) {
+			pool.execute(() -> {
+				long index;
+				while ((index = next.getAndIncrement()) < options.messages()) {
+					if (index % reloadInterval == reloadInterval - 1) {
+						reload();
+					}
+					send(index);
+				}
+			});
+		}
+		pool.shutdown();
+
+		samples.add(sample());
+		long nextSample = sampleInterval;
+		final long start = System.nanoTime();
+		while (!pool.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+			if (completed.sum() >= nextSample) {
+				final Sample sample = sample();
+				samples.add(sample);
+				nextSample += sampleInterval;
+
+				System.out.printf(
+					"%,d messages, %d reloads, %.0f msg/s, heap %s, rss %s, python %s%n",
+					sample.messages(),
+					sample.generation() - 1,
+					sample.messages() / ((System.nanoTime() - start) / 1e9),
+					bytes(sample.heapBytes()),
+					bytes(sample.rssBytes()),
+					bytes(sample.pythonBytes())
+				);
+			}
+		}
+		samples.add(sample());
+	}
+
+	private static String bytes(long bytes) {
+		return bytes < 0 ? "n/a" : String.format("%.1f MiB", bytes / 1048576.0);
+	}
+
+	private static long median(List<Long> values) {
+		final List<Long> sorted = values.stream().sorted().toList();
+		return sorted.get(sorted.size() / 2);
+	}
+
+	/**
+		Computes the evolution of a measure, ignoring the warmup samples.
+	*/
+	static Trend trend(
+		String name,
+		List<Sample> samples,
+		ToLongFunction<Sample> measure
+	) {
+		final List<Sample> measured = samples.subList(
+			(int) Math.ceil(samples.size() * WARMUP_SHARE),
+			samples.size()
+		);
+		if (
+			measured.size() < 4 ||
+			measured.stream().mapToLong(measure).anyMatch(v -> v < 0)
+		) {
+			return new Trend(name, -1, -1, 0, false);
+		}
+
+		// Medians of each quarter, robust to the GC and allocator noise.
+		final long[] quarters = new long[4];
+		for (int q = 0; q < 4; q++) {
+			quarters[q] =
+				median(
+					measured
+						.subList(
+							q * measured.size() / 4,
+							(q + 1) * measured.size() / 4
+						)
+						.stream()
+						.map(measure::applyAsLong)
+						.toList()
+				);
+		}
+		final boolean monotonic =
+			quarters[0] < quarters[1] &&
+			quarters[1] < quarters[2] &&
+			quarters[2] < quarters[3];
+		final boolean growing =
+			monotonic && quarters[3] > quarters[0] * (1 + GROWTH_TOLERANCE);
+
+		// Least squares slope of the measure over the sent messages.
+		final double meanX = measured
+			.stream()
+			.mapToLong(Sample::messages)
+			.average()
+			.orElse(0);
+		final double meanY = measured.stream().mapToLong(measure).average().orElse(0);
+		double covariance = 0;
+		double variance = 0;
+		for (final Sample sample : measured) {
+			final double dx = sample.messages() - meanX;
+			covariance += dx * (measure.applyAsLong(sample) - meanY);
+			variance += dx * dx;
+		}
+		final double slope = variance == 0 ? 0 : covariance / variance;
+
+		return new Trend(name, quarters[0], quarters[3], slope * 1e6, growing);
+	}
+
+	/**
+		Prints the trends and the allocation sites that grew the most.
+
+		@return Whether a growth was flagged.
+	*/
+	boolean report() throws IOException {
+		final List<Trend> trends = List.of(
+			trend("jvm heap (bytes)", samples, Sample::heapBytes),
+			trend("process rss (bytes)", samples, Sample::rssBytes),
+			trend("python traced (bytes)", samples, Sample::pythonBytes),
+			trend("python objects", samples, Sample::pythonObjects),
+			trend("jvm threads", samples, Sample::threads)
+		);
+
+		final Sample first = samples.get(
+			(int) Math.ceil(samples.size() * WARMUP_SHARE)
+		);
+		final Sample last = samples.get(samples.size() - 1);
+
+		System.out.println();
+		System.out.printf(
+			"%,d messages, %d reloads, %d logged errors%n%n",
+			last.messages(),
+			last.generation() - 1,
+			loggedErrors
+		);
+		System.out.printf(
+			"  %-24s %16s %16s %18s%n",
+			"measure",
+			"first quarter",
+			"last quarter",
+			"per 1M messages"
+		);
+		for (final Trend trend : trends) {
+			System.out.printf(
+				"  %-24s %16s %16s %18.0f%s%n",
+				trend.name(),
+				trend.first() < 0 ? "n/a" : String.format("%,d", trend.first()),
+				trend.last() < 0 ? "n/a" : String.format("%,d", trend.last()),
+				trend.perMillionMessages(),
+				trend.growing() ? "  GROWING" : ""
+			);
+		}
+
+		// Sites absent from the first sample grew from 0.
+		final Map<String, Long> growth = new HashMap<>();
+		last.sites().forEach((site, size) ->
+			growth.put(site, size - first.sites().getOrDefault(site, 0L))
+		);
+		System.out.println();
+		System.out.println("Top Python allocation sites (bytes at the end, growth):");
+		last
+			.sites()
+			.entrySet()
+			.stream()
+			.sorted(
+				Comparator.comparingLong((Map.Entry<String, Long> e) ->
+					growth.get(e.getKey())
+				)
+					.reversed()
+			)
+			.forEach(e ->
+				System.out.printf(
+					"  %14s %+14s  %s%n",
+					String.format("%,d", e.getValue()),
+					String.format("%,d", growth.get(e.getKey())),
+					e.getKey()
+				)
+			);
+
+		if (options.json().isPresent()) {
+			final Map<String, Object> json = new LinkedHashMap<>();
+			json.put("script", options.script().toString());
+			json.put("loggedErrors", loggedErrors);
+			json.put("trends", trends);
+			json.put("samples", samples);
+			new ObjectMapper()
+				.writerWithDefaultPrettyPrinter()
+				.writeValue(options.json().get().toFile(), json);
+		}
+
+		return trends.stream().anyMatch(Trend::growing);
+	}
+
+	public static void main(String[] args) throws Exception {
+		final Options options = Options.parse(args);
+
+		// The default script is read from the extracted samples.
+		RessourcesUnpacker.extractRessourcesToHome();
+
+		final FakeMontoya montoya = new FakeMontoya();
+		final SoakTest test = new SoakTest(options, montoya);
+		final boolean growing;
+		try {
+			test.run();
+			growing = test.report();
+		} finally {
+			test.executor.disable();
+			montoya.unload();
+		}
+
+		// The interpreter thread isn't a daemon.
+		System.exit(growing ? 1 : 0);
+	}
+}
@@ -0,0 +1,349 @@
+package lexfo.scalpel;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+  The requests replayed by the load tests, as raw HTTP/1.1 requests addressed to the target server.
+  <p>
+  They are either read from a HAR file, or generated for the endpoints of test/server.js
+  with bodies the sample scripts (base64.py, crypto.py, crypto-stateful.py, gzip-multipart.py) can decode.
+*/
+final class Traffic {
+
+	/**
+		A request to replay.
+
+		@param raw The raw request.
+	*/
+	record Message(byte[] raw) {}
+
+	/**
+		Headers set by the replayer, or that can't be replayed over HTTP/1.1.
+	*/
+	private static final Set<String> DROPPED_HEADERS = Set.of(
+		"host",
+		"content-length",
+		"connection",
+		"keep-alive",
+		"transfer-encoding",
+		"upgrade"
+	);
+
+	/**
+		Session returned by GET /encrypt-session, hardcoded in test/server.js.
+	*/
+	private static final String SERVER_SESSION = "r4nd0mh3xs7r1ng";
+
+	/**
+		Number of messages generated for the synthetic mix, the replay cycles through them.
+	*/
+	private static final int SYNTHETIC_MESSAGES = 256;
+
+	/**
+		Sizes of the generated payloads, from a small form field to a file upload.
+	*/
+	private static final int[] PAYLOAD_SIZES = { 32, 512, 4096, 65536 };
+
+	private final List<Message> messages;
+
+	private Traffic(List<Message> messages) {
+		if (messages.isEmpty()) {
+			throw new IllegalArgumentException("No request to replay.");
+		}
+		this.messages = List.copyOf(messages);
+	}
+
+	/**
+		Returns the n-th request, cycling through the requests.
+
+		@param index The request number.
+		@return The request.
+	*/
+	Message get(long index) {
+		return messages.get((int) (index % messages.size()));
+	}
+
+	/**
+		Returns the number of distinct requests.
+
+		@return The number of requests.
+	*/
+	int size() {
+		return messages.size();
+	}
+
+	private static byte[] rawRequest(
+		String method,
+		String target,
+		String host,
+		List<String[]> headers,
+		byte[] body
+	) {
+		final StringBuilder head = new StringBuilder()
+			.append(method)
+			.append(' ')
+			.append(target)
+			.append(" HTTP/1.1\r\nHost: ")
+			.append(host)
+			.append("\r\n");
+
+		headers
+			.stream()
+			.filter(h ->
+				!h[0].startsWith(":") &&
+				!DROPPED_HEADERS.contains(h[0].toLowerCase())
+			)
+			.forEach(h -> head.append(h[0]).append(": ").append(h[1]).append("\r\n"));
+
+		if (body.length > 0 || !method.equals("GET")) {
+			head.append("Content-Length: ").append(body.length).append("\r\n");
+		}
+		head.append("\r\n");
+
+		final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+		raw.writeBytes(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+		raw.writeBytes(body);
+		return raw.toByteArray();
+	}
+
+	private static String hostOf(URI target) {
+		return target.getHost() + (target.getPort() != -1 ? ":" + target.getPort() : "");
+	}
+
+	/**
+		Reads the requests of a HAR file, they are sent to the target server whatever host they were recorded on.
+
+		@param har The HAR file.
+		@param target The server the requests are sent to.
+		@return The requests, in the recorded order.
+	*/
+	static Traffic fromHar(Path har, URI target) throws IOException {
+		final JsonNode entries = new ObjectMapper()
+			.readTree(har.toFile())
+			.path("log")
+			.path("entries");
+
+		final List<Message> messages = new ArrayList<>();
+		for (final JsonNode entry : entries) {
+			final JsonNode request = entry.path("request");
+			final URI url = URI.create(request.path("url").asText());
+			final String path =
+				(url.getRawPath() == null || url.getRawPath().isEmpty() ? "/" : url.getRawPath()) +
+				(url.getRawQuery() != null ? "?" + url.getRawQuery() : "");
+			final String method = request.path("method").asText("GET");
+
+			final List<String[]> headers = new ArrayList<>();
+			request
+				.path("headers")
+				.forEach(h ->
+					headers.add(
+						new String[] { h.path("name").asText(), h.path("value").asText() }
+					)
+				);
+
+			final JsonNode postData = request.path("postData");
+			final String text = postData.path("text").asText("");
+			final byte[] body = "base64".equals(postData.path("encoding").asText())
+				? Base64.getDecoder().decode(text)
+				: text.getBytes(StandardCharsets.UTF_8);
+
+			messages.add(
+				new Message(rawRequest(method, path, hostOf(target), headers, body))
+			);
+		}
+		return new Traffic(messages);
+	}
+
+	/**
+		Encrypts data like test/server.js and the crypto samples do.
+		(AES-256-CBC with a SHA-256 derived key and a null IV, base64 encoded)
+	*/
+	private static String encrypt(String secret, byte[] data) {
+		try {
+			final byte[] key = MessageDigest
+				.getInstance("SHA-256")
+				.digest(secret.getBytes(StandardCharsets.UTF_8));
+			final Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+			cipher.init(
+				Cipher.ENCRYPT_MODE,
+				new SecretKeySpec(key, "AES"),
+				new IvParameterSpec(new byte[16])
+			);
+			return Base64.getEncoder().encodeToString(cipher.doFinal(data));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] gzip(byte[] data) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+			gz.write(data);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static String form(String... fields) {
+		final StringBuilder form = new StringBuilder();
+		for (int i = 0; i < fields.length; i += 2) {
+			if (i > 0) {
+				form.append('&');
+			}
+			form
+				.append(fields[i])
+				.append('=')
+				.append(URLEncoder.encode(fields[i + 1], StandardCharsets.UTF_8));
+		}
+		return form.toString();
+	}
+
+	private static byte[] multipart(String boundary, byte[] fs, byte[] file) {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		final String fsHead = String.join(
+			"\r\n",
+			"--" + boundary,
+			"Content-Disposition: form-data; name=\"fs\"; filename=\"fs.gz\"",
+			"Content-Type: application/gzip",
+			"",
+			""
+		);
+		final String fileHead = String.join(
+			"\r\n",
+			"",
+			"--" + boundary,
+			"Content-Disposition: form-data; name=\"filetosend\"; filename=\"file.gz\"",
+			"Content-Type: application/gzip",
+			"",
+			""
+		);
+		body.writeBytes(fsHead.getBytes(StandardCharsets.ISO_8859_1));
+		body.writeBytes(fs);
+		body.writeBytes(fileHead.getBytes(StandardCharsets.ISO_8859_1));
+		body.writeBytes(file);
+		body.writeBytes(
+			("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1)
+		);
+		return body.toByteArray();
+	}
+
+	/**
+		Generates a request mix for the endpoints of test/server.js.
+		POST requests dominate, as their bodies are what the sample hooks decode and re-encode.
+
+		@param target The server the requests are sent to.
+		@param seed The seed of the generated payloads, so runs are comparable.
+		@return The requests.
+	*/
+	static Traffic synthetic(URI target, long seed) {
+		final Random random = new Random(seed);
+		final String host = hostOf(target);
+		final List<String[]> form = List.<String[]>of(
+			new String[] { "Content-Type", "application/x-www-form-urlencoded" }
+		);
+		final String boundary = "----ScalpelLoadTest";
+		final List<String[]> multipart = List.<String[]>of(
+			new String[] {
+				"Content-Type",
+				"multipart/form-data; boundary=" + boundary,
+			}
+		);
+
+		final List<Message> messages = new ArrayList<>();
+		for (int i = 0; i < SYNTHETIC_MESSAGES; i++) {
+			final int size = PAYLOAD_SIZES[random.nextInt(PAYLOAD_SIZES.length)];
+			final byte[] text = new byte[size];
+			for (int j = 0; j < size; j++) {
+				text[j] = (byte) (' ' + random.nextInt('~' - ' '));
+			}
+			final String secret = Long.toHexString(random.nextLong());
+
+			// Weights: 3 base64, 3 encrypt, 2 encrypt-session, 2 upload.
+			switch (i % 10) {
+				case 0, 1, 2 -> messages.add(
+					new Message(
+						rawRequest(
+							"POST",
+							"/base64",
+							host,
+							List.<String[]>of(new String[] { "Content-Type", "text/plain" }),
+							Base64.getEncoder().encode(text)
+						)
+					)
+				);
+				case 3, 4, 5 -> messages.add(
+					new Message(
+						rawRequest(
+							"POST",
+							"/encrypt",
+							host,
+							form,
+							form("secret", secret, "encrypted", encrypt(secret, text))
+								.getBytes(StandardCharsets.US_ASCII)
+						)
+					)
+				);
+				case 6 -> messages.add(
+					new Message(
+						rawRequest("GET", "/encrypt-session", host, List.of(), new byte[0])
+					)
+				);
+				case 7 -> messages.add(
+					new Message(
+						rawRequest(
+							"POST",
+							"/encrypt-session",
+							host,
+							form,
+							form("encrypted", encrypt(SERVER_SESSION, text))
+								.getBytes(StandardCharsets.US_ASCII)
+						)
+					)
+				);
+				case 8 -> messages.add(
+					new Message(
+						rawRequest(
+							"POST",
+							"/upload",
+							host,
+							multipart,
+							multipart(
+								boundary,
+								gzip(
+									new String(text, StandardCharsets.ISO_8859_1)
+										.getBytes(StandardCharsets.UTF_16LE)
+								),
+								gzip(text)
+							)
+						)
+					)
+				);
+				default -> messages.add(
+					new Message(
+						rawRequest("GET", "/upload", host, List.of(), new byte[0])
+					)
+				);
+			}
+		}
+		return new Traffic(messages);
+	}
+}
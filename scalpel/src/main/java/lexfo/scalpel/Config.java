@@ -64,6 +64,27 @@ public class Config {
 		public String defaultWorkspacePath = "";
 		public String defaultScriptPath = "";
 		public String jdkPath = null;
+
+		/**
+		 * Body size (in bytes) above which hooks are skipped unless they opted in with @large_body.
+		 * A negative value disables the threshold.
+		 */
+		public long largeBodyThreshold = Constants.DEFAULT_LARGE_BODY_THRESHOLD;
+
+		/**
+		 * Minimum level of the displayed logs. (TRACE, DEBUG, INFO, WARN, ERROR, FATAL, ALL)
+		 */
+		public String logLevel = ScalpelLogger.Level.DEBUG.name();
+
+		/**
+		 * Only render the selected editor tab, the other tabs are rendered the first time they are selected.
+		 */
+		public boolean lazyEditorTabs = false;
+
+		/**
+		 * Time (in seconds) after which hidden editors release their rendered content, 0 to disable.
+		 */
+		public long idleEditorTimeout = Constants.DEFAULT_IDLE_EDITOR_TIMEOUT;
 	}
 
 	// Persistent data for a specific project.
@@ -427,6 +448,46 @@ public class Config {
 		return Path.of(globalConfig.jdkPath);
 	}
 
+	/*
+	 * Get the body size above which hooks are skipped unless they opted in to large bodies.
+	 *
+	 * @return The threshold in bytes, negative when disabled.
+	 */
+	public long getLargeBodyThreshold() {
+		return globalConfig.largeBodyThreshold;
+	}
+
+	/*
+	 * Get the minimum level of the displayed logs.
+	 *
+	 * @return The log level, DEBUG when the configured one is invalid.
+	 */
+	public ScalpelLogger.Level getLogLevel() {
+		try {
+			return ScalpelLogger.Level.valueOf(globalConfig.logLevel);
+		} catch (IllegalArgumentException | NullPointerException e) {
+			return ScalpelLogger.Level.DEBUG;
+		}
+	}
+
+	/*
+	 * Whether only the selected editor tab is rendered.
+	 *
+	 * @return True when the other tabs are rendered the first time they are selected.
+	 */
+	public boolean isLazyEditorTabs() {
+		return globalConfig.lazyEditorTabs;
+	}
+
+	/*
+	 * Get the time after which hidden editors release their rendered content.
+	 *
+	 * @return The timeout in seconds, 0 or less when disabled.
+	 */
+	public long getIdleEditorTimeout() {
+		return globalConfig.idleEditorTimeout;
+	}
+
 	/*
 	 * Get the selected venv path.
 	 *
@@ -443,6 +504,50 @@ public class Config {
 		this.saveGlobalConfig();
 	}
 
+	/*
+	 * Set the body size above which hooks are skipped unless they opted in to large bodies.
+	 * Saves the new value to the global configuration file.
+	 *
+	 * @param threshold The threshold in bytes, negative to disable it.
+	 */
+	public void setLargeBodyThreshold(long threshold) {
+		this.globalConfig.largeBodyThreshold = threshold;
+		this.saveGlobalConfig();
+	}
+
+	/*
+	 * Set the minimum level of the displayed logs.
+	 * Saves the new level to the global configuration file.
+	 *
+	 * @param level The new log level.
+	 */
+	public void setLogLevel(ScalpelLogger.Level level) {
+		this.globalConfig.logLevel = level.name();
+		this.saveGlobalConfig();
+	}
+
+	/*
+	 * Set whether only the selected editor tab is rendered.
+	 * Saves the new value to the global configuration file.
+	 *
+	 * @param lazy True to render the other tabs the first time they are selected.
+	 */
+	public void setLazyEditorTabs(boolean lazy) {
+		this.globalConfig.lazyEditorTabs = lazy;
+		this.saveGlobalConfig();
+	}
+
+	/*
+	 * Set the time after which hidden editors release their rendered content.
+	 * Saves the new value to the global configuration file.
+	 *
+	 * @param timeout The timeout in seconds, 0 to disable.
+	 */
+	public void setIdleEditorTimeout(long timeout) {
+		this.globalConfig.idleEditorTimeout = timeout;
+		this.saveGlobalConfig();
+	}
+
 	/*
 	 * Set the venv paths list.
 	 * Saves the new list to the global configuration file.
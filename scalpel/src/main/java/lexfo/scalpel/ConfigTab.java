@@ -19,9 +19,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import javax.swing.*;
@@ -58,6 +60,53 @@ public class ConfigTab extends JFrame {
 	private JPanel listPannel;
 	private JButton openFolderButton;
 	private JButton scalpelIsENABLEDButton;
+	private JPanel settingsPanel;
+	private JComboBox<ScalpelLogger.Level> logLevelComboBox;
+	private JCheckBox lazyTabsCheckBox;
+	private JSpinner idleTimeoutSpinner;
+	private JCheckBox tracingCheckBox;
+	private JCheckBox profileHooksCheckBox;
+	private JSpinner largeBodyThresholdSpinner;
+	private JPanel hookMetricsPanel;
+	private JTable hookMetricsTable;
+	private JButton resetMetricsButton;
+
+	/**
+	 * Unit of the large body threshold setting.
+	 */
+	private static final long MIB = 1024 * 1024;
+
+	/**
+	 * Columns of the hook metrics table, durations are in milliseconds.
+	 */
+	private static final String[] HOOK_METRICS_COLUMNS = {
+			"Hook",
+			"Calls",
+			"Calls/s",
+			"Resolved",
+			"Rejected",
+			"Exceptions",
+			"Queue p50",
+			"Queue p99",
+			"Exec p50",
+			"Exec p99",
+			"Exec max",
+	};
+
+	/**
+	 * Calls of each hook at the previous refresh, to compute the call rates.
+	 */
+	private Map<String, Long> previousMetricsCalls = Map.of();
+	private long previousMetricsRefresh = System.nanoTime();
+
+	/**
+	 * Stops the hooks profiler once its duration is elapsed.
+	 */
+	private final Timer profileTimer = new Timer(
+			(int) TimeUnit.SECONDS.toMillis(Constants.HOOK_PROFILE_DURATION),
+			__ -> profileHooksCheckBox.doClick()
+	);
+
 	private final ScalpelExecutor scalpelExecutor;
 	private final Config config;
 	private final Theme theme;
@@ -134,6 +183,62 @@ public class ConfigTab extends JFrame {
 
 		this.scalpelIsENABLEDButton.addActionListener(__ -> handleEnableButton()
 		);
+
+		// Select the minimum level of the displayed logs.
+		logLevelComboBox.setModel(
+				new DefaultComboBoxModel<>(ScalpelLogger.Level.values())
+		);
+		logLevelComboBox.setSelectedItem(ScalpelLogger.getLevel());
+		logLevelComboBox.addActionListener(__ -> handleLogLevelSelection());
+
+		// Only render the selected editor tab.
+		lazyTabsCheckBox.setSelected(config.isLazyEditorTabs());
+		lazyTabsCheckBox.addActionListener(__ ->
+			config.setLazyEditorTabs(lazyTabsCheckBox.isSelected())
+		);
+
+		// Release the messages of editors hidden for longer than this delay.
+		idleTimeoutSpinner.setModel(
+				// Boxed values, otherwise the double overload would be selected.
+				new SpinnerNumberModel(
+						Long.valueOf(config.getIdleEditorTimeout()),
+						Long.valueOf(0),
+						Long.valueOf(24 * 60 * 60),
+						Long.valueOf(30)
+				)
+		);
+		idleTimeoutSpinner.addChangeListener(__ ->
+			config.setIdleEditorTimeout(
+				((Number) idleTimeoutSpinner.getValue()).longValue()
+			)
+		);
+
+		// Skip the proxy hooks that didn't opt in for bodies above this size.
+		final long threshold = config.getLargeBodyThreshold();
+		largeBodyThresholdSpinner.setModel(
+				new SpinnerNumberModel(
+						Long.valueOf(threshold < 0 ? 0 : threshold / MIB),
+						Long.valueOf(0),
+						Long.valueOf(1024 * 1024),
+						Long.valueOf(16)
+				)
+		);
+		largeBodyThresholdSpinner.addChangeListener(__ -> {
+			final long mib =
+				((Number) largeBodyThresholdSpinner.getValue()).longValue();
+			config.setLargeBodyThreshold(mib == 0 ? -1 : mib * MIB);
+		});
+
+		// Record traces for this session only, so they don't fill the disk if forgotten.
+		tracingCheckBox.setSelected(Tracer.isEnabled());
+		tracingCheckBox.addActionListener(__ -> handleTracingCheckBox());
+
+		// Profile the Python hooks for a limited time.
+		profileTimer.setRepeats(false);
+		profileHooksCheckBox.addActionListener(__ -> handleProfileHooksCheckBox());
+
+		// Live latencies and outcomes of the hooks.
+		setupHookMetrics();
 	}
 
 	/**
@@ -445,6 +550,137 @@ public class ConfigTab extends JFrame {
 		}
 	}
 
+	private void handleLogLevelSelection() {
+		final ScalpelLogger.Level level =
+				(ScalpelLogger.Level) logLevelComboBox.getSelectedItem();
+
+		if (level == null || level == ScalpelLogger.getLevel()) {
+			return;
+		}
+
+		// Notifies the Python logger through the executor.
+		ScalpelLogger.setLevel(level);
+		config.setLogLevel(level);
+	}
+
+	private void handleTracingCheckBox() {
+		if (!tracingCheckBox.isSelected()) {
+			Tracer.stop();
+			return;
+		}
+
+		try {
+			Tracer.start();
+		} catch (IOException e) {
+			tracingCheckBox.setSelected(false);
+			JOptionPane.showMessageDialog(
+					burpFrame,
+					"Failed to create the trace file: \n" + e.getMessage(),
+					"Failed to record traces",
+					JOptionPane.ERROR_MESSAGE
+			);
+		}
+	}
+
+	private void handleProfileHooksCheckBox() {
+		if (!profileHooksCheckBox.isSelected()) {
+			profileTimer.stop();
+
+			// The profile and the slowest functions are logged by Python.
+			Async.run(scalpelExecutor::stopHookProfiling);
+			return;
+		}
+
+		Async.run(() -> {
+			if (
+				!scalpelExecutor.startHookProfiling(
+					Constants.HOOK_PROFILE_DURATION
+				)
+			) {
+				ScalpelLogger.error(
+					"Failed to start the hooks profiler, is the script loaded?"
+				);
+				SwingUtilities.invokeLater(() -> {
+					profileTimer.stop();
+					profileHooksCheckBox.setSelected(false);
+				});
+			}
+		});
+		profileTimer.restart();
+	}
+
+	private void setupHookMetrics() {
+		hookMetricsTable.setModel(
+				new DefaultTableModel(HOOK_METRICS_COLUMNS, 0)
+		);
+
+		// make the table uneditable
+		hookMetricsTable.setDefaultEditor(Object.class, null);
+
+		resetMetricsButton.addActionListener(__ -> {
+			HookMetrics.reset();
+			refreshHookMetrics();
+		});
+
+		// Only refresh while the tab is displayed.
+		final Timer timer = new Timer(
+				Constants.HOOK_METRICS_REFRESH_MS,
+				__ -> {
+					if (rootPanel.isShowing()) {
+						refreshHookMetrics();
+					}
+				}
+		);
+		timer.start();
+		API.extension().registerUnloadingHandler(timer::stop);
+	}
+
+	private void refreshHookMetrics() {
+		final long now = System.nanoTime();
+		final double elapsedSeconds = Math.max(
+				(now - previousMetricsRefresh) / 1e9,
+				1e-3
+		);
+
+		final Map<String, Long> calls = new HashMap<>();
+		final DefaultTableModel model =
+				(DefaultTableModel) hookMetricsTable.getModel();
+		model.setRowCount(0);
+
+		for (final HookMetrics.Snapshot metrics : HookMetrics.snapshot()) {
+			// Counters go back to 0 on reset.
+			final long newCalls = Math.max(
+					0,
+					metrics.calls() -
+					previousMetricsCalls.getOrDefault(metrics.hook(), 0L)
+			);
+			calls.put(metrics.hook(), metrics.calls());
+
+			model.addRow(
+					new Object[]{
+							metrics.hook(),
+							metrics.calls(),
+							String.format("%.1f", newCalls / elapsedSeconds),
+							metrics.resolved(),
+							metrics.rejected(),
+							metrics.exceptions(),
+							toMillis(metrics.queueP50()),
+							toMillis(metrics.queueP99()),
+							toMillis(metrics.execP50()),
+							toMillis(metrics.execP99()),
+							toMillis(metrics.execMax()),
+					}
+			);
+		}
+
+		previousMetricsCalls = calls;
+		previousMetricsRefresh = now;
+	}
+
+	private static String toMillis(long micros) {
+		return String.format("%.2f", micros / 1000.0);
+	}
+
 	private void handleVenvButton() {
 		final String value = addVentText.getText().trim();
 
@@ -978,6 +1214,52 @@ public class ConfigTab extends JFrame {
 		browsePanel.add(spacer5, new GridConstraints(4, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_VERTICAL, 1, GridConstraints.SIZEPOLICY_WANT_GROW, new Dimension(-1, 15), null, null, 0, false));
 		final Spacer spacer6 = new Spacer();
 		browsePanel.add(spacer6, new GridConstraints(2, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_VERTICAL, 1, GridConstraints.SIZEPOLICY_WANT_GROW, new Dimension(-1, 5), null, null, 0, false));
+		settingsPanel = new JPanel();
+		settingsPanel.setLayout(new GridLayoutManager(6, 2, new Insets(0, 0, 10, 10), -1, -1));
+		browsePanel.add(settingsPanel, new GridConstraints(0, 0, 1, 3, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, null, null, null, 0, false));
+		final JLabel label2 = new JLabel();
+		label2.setText("Log level");
+		settingsPanel.add(label2, new GridConstraints(0, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		logLevelComboBox = new JComboBox();
+		settingsPanel.add(logLevelComboBox, new GridConstraints(0, 1, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		lazyTabsCheckBox = new JCheckBox();
+		lazyTabsCheckBox.setText("Only render the selected editor tab");
+		lazyTabsCheckBox.setToolTipText("Other tabs are rendered the first time they are selected");
+		settingsPanel.add(lazyTabsCheckBox, new GridConstraints(1, 0, 1, 2, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		final JLabel label3 = new JLabel();
+		label3.setText("Release hidden editors after (s)");
+		label3.setToolTipText("Editors hidden for longer than this release their rendered content and are rendered again when shown, 0 to disable");
+		settingsPanel.add(label3, new GridConstraints(2, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		idleTimeoutSpinner = new JSpinner();
+		settingsPanel.add(idleTimeoutSpinner, new GridConstraints(2, 1, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		tracingCheckBox = new JCheckBox();
+		tracingCheckBox.setText("Record traces");
+		tracingCheckBox.setToolTipText("Write the Java and Python stages of each hook call to a Chrome trace file in ~/.scalpel/traces");
+		settingsPanel.add(tracingCheckBox, new GridConstraints(3, 0, 1, 2, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		profileHooksCheckBox = new JCheckBox();
+		profileHooksCheckBox.setText("Profile the hooks for 30 s");
+		profileHooksCheckBox.setToolTipText("Write the time spent in each hook call stack to ~/.scalpel/profiles (for flamegraphs) and log the slowest functions");
+		settingsPanel.add(profileHooksCheckBox, new GridConstraints(4, 0, 1, 2, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		final JLabel label4 = new JLabel();
+		label4.setText("Large body threshold (MiB)");
+		label4.setToolTipText("Proxy hooks not decorated with @large_body are skipped for bodies above this size, 0 to disable");
+		settingsPanel.add(label4, new GridConstraints(5, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		largeBodyThresholdSpinner = new JSpinner();
+		settingsPanel.add(largeBodyThresholdSpinner, new GridConstraints(5, 1, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+		hookMetricsPanel = new JPanel();
+		hookMetricsPanel.setLayout(new GridLayoutManager(2, 2, new Insets(5, 5, 5, 5), -1, -1));
+		rootPanel.add(hookMetricsPanel, new GridConstraints(1, 0, 1, 3, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, null, null, null, 0, false));
+		hookMetricsPanel.setBorder(BorderFactory.createTitledBorder(null, "Hook metrics", TitledBorder.DEFAULT_JUSTIFICATION, TitledBorder.DEFAULT_POSITION, null, null));
+		final JScrollPane scrollPane4 = new JScrollPane();
+		hookMetricsPanel.add(scrollPane4, new GridConstraints(0, 0, 1, 2, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, null, new Dimension(-1, 150), null, 0, false));
+		hookMetricsTable = new JTable();
+		scrollPane4.setViewportView(hookMetricsTable);
+		final Spacer spacer7 = new Spacer();
+		hookMetricsPanel.add(spacer7, new GridConstraints(1, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_WANT_GROW, 1, null, null, null, 0, false));
+		resetMetricsButton = new JButton();
+		resetMetricsButton.setText("Reset");
+		resetMetricsButton.setToolTipText("Discard the recorded metrics");
+		hookMetricsPanel.add(resetMetricsButton, new GridConstraints(1, 1, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
 	}
 
 	/**
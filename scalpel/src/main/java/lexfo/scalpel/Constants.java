@@ -2,6 +2,7 @@ package lexfo.scalpel;
 
 import com.google.common.collect.ImmutableSet;
 import com.jediterm.terminal.ui.UIUtil;
+import java.nio.file.Path;
 
 /**
   Contains constants used by the extension.
@@ -34,6 +35,11 @@ public class Constants {
 	*/
 	public static final String OUT_SUFFIX = "out";
 
+	/**
+    	Callback suffix for rendering every editor tab in a single call.
+	*/
+	public static final String ALL_TABS_SUFFIX = "_all";
+
 	public static final String REQ_CB_NAME = "request";
 
 	/**
@@ -76,6 +82,37 @@ public class Constants {
 
 	public static final String GET_CB_NAME = "_get_callables";
 
+	/**
+		Framework callback notifying Python of log level changes.
+	*/
+	public static final String SET_LOG_LEVEL_CB_NAME = "_set_log_level";
+
+	/**
+		Framework callback setting the trace of the running task, when tracing is enabled.
+	*/
+	public static final String SET_TRACE_CB_NAME = "_set_trace";
+
+	/**
+		Framework callbacks starting and stopping the hooks profiler.
+	*/
+	public static final String START_PROFILING_CB_NAME = "_start_profiling";
+	public static final String STOP_PROFILING_CB_NAME = "_stop_profiling";
+
+	/**
+		User hook filtering the messages the other hooks are called for.
+	*/
+	public static final String MATCH_CB_NAME = "match";
+
+	/**
+		Framework callback calling match() for an editor without rendering its tabs. (lazy mode)
+	*/
+	public static final String MATCH_EDITOR_CB_NAME = "_match_editor";
+
+	/**
+		Framework callback sampling the Python memory usage. (used by the soak test)
+	*/
+	public static final String MEMORY_USAGE_CB_NAME = "_memory_usage";
+
 	/**
 	 * Required python packages
 	 */
@@ -167,4 +204,78 @@ public class Constants {
 	public static final String HEX_EDITOR_MODE = "hex";
 	public static final String RAW_EDITOR_MODE = "raw";
 	public static final String DEFAULT_EDITOR_MODE = RAW_EDITOR_MODE;
+
+	/**
+		Annotation set by the pyscalpel large_body decorator on hooks that accept bodies above the threshold.
+	*/
+	public static final String LARGE_BODY_ANNOTATION_KEY = "scalpel_large_body";
+
+	/**
+		Default size (in bytes) above which a body is considered large. (64 MiB)
+	*/
+	public static final long DEFAULT_LARGE_BODY_THRESHOLD = 64L * 1024 * 1024;
+
+	/**
+		Prefix for the temporary files large bodies are spilled to.
+	*/
+	public static final String LARGE_BODY_FILE_PREFIX = "scalpel-body-";
+
+	/**
+		Size of the chunks large bodies are written to their temporary file in, so they are never copied whole. (1 MiB)
+	*/
+	public static final int LARGE_BODY_CHUNK_SIZE = 1024 * 1024;
+
+	/**
+		Maximum size (in bytes) of a body decoded by the ContentDecoder, larger ones are left encoded. (128 MiB)
+	*/
+	public static final int DECODE_MAX_BYTES = 128 * 1024 * 1024;
+
+	/**
+		Maximum total size (in bytes) of the decoded bodies kept by the ContentDecoder cache. (64 MiB)
+	*/
+	public static final long DECODE_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+
+	/**
+		Maximum total size (in bytes) of the editor contents kept by the EditorRenderCache. (32 MiB)
+	*/
+	public static final long EDITOR_RENDER_CACHE_MAX_BYTES = 32L * 1024 * 1024;
+
+	/**
+		Delay (in milliseconds) before the editor shows a placeholder while the tabs are rendering,
+		so fast (e.g. cached) renders don't flicker.
+	*/
+	public static final int EDITOR_PLACEHOLDER_DELAY_MS = 100;
+
+	/**
+		Maximum time (in milliseconds) Burp's isEnabledFor() waits for the hooks,
+		past that delay, the Scalpel tab is shown and keeps rendering asynchronously.
+	*/
+	public static final long EDITOR_ENABLED_TIMEOUT_MS = 200;
+
+	/**
+		Default time (in seconds) after which hidden editors release their rendered content. (5 minutes)
+	*/
+	public static final long DEFAULT_IDLE_EDITOR_TIMEOUT = 5 * 60;
+
+	/**
+		Interval (in milliseconds) between the checks for idle editors.
+	*/
+	public static final int IDLE_EDITOR_CHECK_INTERVAL_MS = 30 * 1000;
+
+	/**
+		Interval (in milliseconds) between the refreshes of the hook metrics table.
+	*/
+	public static final int HOOK_METRICS_REFRESH_MS = 1000;
+
+	/**
+		Directory the hooks profiles are written to.
+	*/
+	public static final Path PROFILES_DIR_PATH = RessourcesUnpacker.DATA_DIR_PATH.resolve(
+		"profiles"
+	);
+
+	/**
+		Duration (in seconds) of a hooks profile started from the Scalpel tab.
+	*/
+	public static final long HOOK_PROFILE_DURATION = 30;
 }
@@ -0,0 +1,175 @@
+package lexfo.scalpel;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+import org.brotli.dec.BrotliInputStream;
+
+/**
+ * Decodes HTTP bodies according to their Content-Encoding.
+ *
+ * <p>Decoded bodies are kept in a bounded LRU cache keyed by a hash the caller computes once,
+ * so the proxy hooks and the editors don't decompress the same body again,
+ * and a cached body doesn't have to be copied and hashed again to be looked up.
+ *
+ * <p>Decoded bodies larger than {@link Constants#DECODE_MAX_BYTES} are rejected, so a small
+ * compressed body can't exhaust the heap.
+ *
+ * <p>Exposed to Python as pyscalpel.java.scalpel_types.ContentDecoder.
+ */
+public class ContentDecoder {
+
+	/**
+	 * Cache key: the encoded content hash and length, and its encoding.
+	 */
+	private record Key(long hash, int length, String encoding) {}
+
+	/**
+	 * Decoded bodies, bounded by their total size.
+	 */
+	private static final Cache<Key, byte[]> cache = CacheBuilder
+		.newBuilder()
+		.maximumWeight(Constants.DECODE_CACHE_MAX_BYTES)
+		.weigher((Key key, byte[] decoded) -> decoded.length)
+		.build();
+
+	private static String normalize(String encoding) {
+		return encoding.trim().toLowerCase();
+	}
+
+	/**
+	 * Looks up a body that was already decoded, without copying its content.
+	 *
+	 * @param hash the hash of the encoded body, as passed to {@link #decode(byte[], String, long)}
+	 * @param length the encoded body length
+	 * @param encoding the Content-Encoding header value (e.g. gzip)
+	 * @return the decoded body, or null when it isn't cached
+	 */
+	public static byte[] cached(long hash, int length, String encoding) {
+		return cache.getIfPresent(new Key(hash, length, normalize(encoding)));
+	}
+
+	/**
+	 * Decodes a body and caches the result under the given hash.
+	 *
+	 * @param content the encoded body
+	 * @param encoding the Content-Encoding header value (e.g. gzip)
+	 * @param hash a hash of the content computed by the caller (e.g. Python's hash())
+	 * @return the decoded body, or null when it exceeds {@link Constants#DECODE_MAX_BYTES}
+	 * @throws IOException when the content is not valid for the encoding
+	 * @throws IllegalArgumentException when the encoding is not supported
+	 */
+	public static byte[] decode(byte[] content, String encoding, long hash)
+		throws IOException {
+		return decode(content, encoding, hash, Constants.DECODE_MAX_BYTES);
+	}
+
+	/**
+	 * @see #decode(byte[], String, long)
+	 * @param maxBytes the maximum decoded size
+	 */
+	static byte[] decode(
+		byte[] content,
+		String encoding,
+		long hash,
+		int maxBytes
+	) throws IOException {
+		final String normalized = normalize(encoding);
+		if (normalized.isEmpty() || normalized.equals("identity")) {
+			return content;
+		}
+
+		final Key key = new Key(hash, content.length, normalized);
+		final byte[] cached = cache.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+
+		final byte[] decoded = decodeUncached(content, normalized, maxBytes);
+		if (decoded != null) {
+			cache.put(key, decoded);
+		}
+		return decoded;
+	}
+
+	/**
+	 * Empties the cache.
+	 */
+	public static void clearCache() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached bodies (used by the tests)
+	 */
+	static long cacheSize() {
+		return cache.size();
+	}
+
+	private static byte[] decodeUncached(
+		byte[] content,
+		String encoding,
+		int maxBytes
+	) throws IOException {
+		return switch (encoding) {
+			case "gzip", "x-gzip" -> readAll(
+				new GZIPInputStream(new ByteArrayInputStream(content)),
+				maxBytes
+			);
+			case "deflate" -> inflate(content, maxBytes);
+			case "br" -> readAll(
+				new BrotliInputStream(new ByteArrayInputStream(content)),
+				maxBytes
+			);
+			case "zstd" -> readAll(
+				new ZstdInputStream(new ByteArrayInputStream(content)),
+				maxBytes
+			);
+			default -> throw new IllegalArgumentException(
+				"Unsupported content encoding: " + encoding
+			);
+		};
+	}
+
+	/**
+	 * Inflates a deflate body.
+	 * Servers send either zlib-wrapped or raw deflate data, so both are tried like browsers do.
+	 */
+	private static byte[] inflate(byte[] content, int maxBytes)
+		throws IOException {
+		try {
+			return readAll(
+				new InflaterInputStream(new ByteArrayInputStream(content)),
+				maxBytes
+			);
+		} catch (ZipException e) {
+			return readAll(
+				new InflaterInputStream(
+					new ByteArrayInputStream(content),
+					new Inflater(true)
+				),
+				maxBytes
+			);
+		}
+	}
+
+	/**
+	 * Reads a decoding stream, stopping once it exceeds the maximum size.
+	 *
+	 * @return the decoded bytes, or null when there are more than maxBytes
+	 */
+	private static byte[] readAll(InputStream stream, int maxBytes)
+		throws IOException {
+		try (stream) {
+			final byte[] decoded = stream.readNBytes(maxBytes);
+			return stream.read() == -1 ? decoded : null;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package lexfo.scalpel;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.message.HttpMessage;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded LRU of the editors "in" hooks results.
+ *
+ * <p>Burp calls isEnabledFor() and setRequestResponse() for the same message,
+ * and the same history items are often displayed again,
+ * so the Python output is cached by message content, tab and interpreter generation.
+ * Reloading the script increments the generation, which invalidates the previous results.
+ *
+ * <p>A failed or rejected hook call returns nothing, like a hook disabling its tab,
+ * so empty results are only cached when the caller knows the tab was disabled. (see {@link #put})
+ */
+public class EditorRenderCache {
+
+	/**
+	 * Identifies an editor render.
+	 *
+	 * @param contentHash hash of the rendered message(s) and their service
+	 * @param type the editor type (REQUEST or RESPONSE)
+	 * @param tabName the tab name (hook suffix)
+	 * @param generation the interpreter generation that rendered it
+	 */
+	public record Key(
+		HashCode contentHash,
+		EditorType type,
+		String tabName,
+		long generation
+	) {}
+
+	/**
+	 * Rendered contents, empty when the hook disabled the tab.
+	 */
+	private static final Cache<Key, Optional<ByteArray>> cache = CacheBuilder
+		.newBuilder()
+		.maximumWeight(Constants.EDITOR_RENDER_CACHE_MAX_BYTES)
+		.weigher((Key key, Optional<ByteArray> content) ->
+			content.map(ByteArray::length).orElse(0) + 1
+		)
+		.build();
+
+	/**
+	 * Hashes the messages passed to the editor hooks, once for all the tabs rendering them.
+	 *
+	 * @param message the edited message
+	 * @param request the initiating request for response editors, null otherwise
+	 * @param service the service passed to the hook
+	 * @return the hash of the messages and their service
+	 */
+	public static HashCode contentHash(
+		HttpMessage message,
+		HttpMessage request,
+		HttpService service
+	) {
+		final Hasher hasher = Hashing.murmur3_128().newHasher();
+
+		if (service != null) {
+			hasher
+				.putString(service.host(), StandardCharsets.UTF_8)
+				.putInt(service.port())
+				.putBoolean(service.secure());
+		}
+
+		putMessage(hasher, message);
+
+		// Response hooks also receive the request.
+		if (request != null) {
+			putMessage(hasher, request);
+		}
+
+		return hasher.hash();
+	}
+
+	/**
+	 * Creates the key for a render.
+	 *
+	 * @param type the editor type (REQUEST or RESPONSE)
+	 * @param tabName the tab name (hook suffix)
+	 * @param contentHash the hash of the rendered messages, see {@link #contentHash}
+	 * @param generation the current interpreter generation
+	 * @return the render key
+	 */
+	public static Key key(
+		EditorType type,
+		String tabName,
+		HashCode contentHash,
+		long generation
+	) {
+		return new Key(contentHash, type, tabName, generation);
+	}
+
+	private static void putMessage(Hasher hasher, HttpMessage message) {
+		final byte[] bytes = message.toByteArray().getBytes();
+
+		// Prefix with the length to keep the message boundaries.
+		hasher.putInt(bytes.length).putBytes(bytes);
+	}
+
+	/**
+	 * Thrown by the cache loader to return an empty render without caching it.
+	 */
+	private static final class EmptyRender extends Exception {
+
+		EmptyRender() {
+			super(null, null, false, false);
+		}
+	}
+
+	/**
+	 * Get a cached render or compute it.
+	 * Concurrent calls for the same key wait for a single computation.
+	 *
+	 * @param key the render key
+	 * @param render computes the render when it is not cached
+	 * @return the rendered content, empty when the tab is disabled or the hook call failed
+	 * @throws Exception when the render failed (failures are not cached)
+	 */
+	public static Optional<ByteArray> get(
+		Key key,
+		Callable<Optional<ByteArray>> render
+	) throws Exception {
+		try {
+			return cache.get(
+				key,
+				() -> Optional.of(render.call().orElseThrow(EmptyRender::new))
+			);
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			if (e.getCause() instanceof EmptyRender) {
+				// The call may have failed or been rejected, so it is tried again next time.
+				return Optional.empty();
+			}
+			if (e.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks if a render is cached.
+	 *
+	 * @param key the render key
+	 * @return true if the render is cached, false otherwise
+	 */
+	public static boolean contains(Key key) {
+		return cache.getIfPresent(key) != null;
+	}
+
+	/**
+	 * Stores a render computed elsewhere. (e.g. when rendering every tab at once)
+	 *
+	 * @param key the render key
+	 * @param content the rendered content, empty only when the hook disabled the tab
+	 */
+	public static void put(Key key, Optional<ByteArray> content) {
+		cache.put(key, content);
+	}
+
+	/**
+	 * Empties the cache.
+	 */
+	public static void clear() {
+		cache.invalidateAll();
+	}
+}
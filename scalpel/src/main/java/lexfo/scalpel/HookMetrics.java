@@ -0,0 +1,167 @@
+package lexfo.scalpel;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+
+/**
+ * Latency histograms and outcome counters of the executor tasks, per hook.
+ *
+ * <p>Hooks are identified by their Python name and tab suffix, so each editor tab has its own entry.
+ * Recording is lock-free and allocation-free once the hook has been seen,
+ * so it stays enabled on the proxy hot path.
+ */
+public class HookMetrics {
+
+	/**
+	 * How a task ended.
+	 */
+	public enum Outcome {
+		/** The hook returned a value. */
+		RESOLVED,
+		/** The hook returned None, or the task was rejected without running. */
+		REJECTED,
+		/** The hook raised an exception. */
+		EXCEPTION,
+	}
+
+	/**
+	 * Point-in-time statistics of a hook, durations are in microseconds.
+	 *
+	 * @param hook the hook name and tab suffix
+	 * @param calls the number of recorded calls
+	 * @param resolved the number of calls that returned a value
+	 * @param rejected the number of calls that returned None or were rejected
+	 * @param exceptions the number of calls that raised
+	 * @param queueP50 the median time spent waiting for the interpreter
+	 * @param queueP99 the 99th percentile time spent waiting for the interpreter
+	 * @param queueMax the maximum time spent waiting for the interpreter
+	 * @param execP50 the median Python execution time
+	 * @param execP99 the 99th percentile Python execution time
+	 * @param execMax the maximum Python execution time
+	 */
+	public record Snapshot(
+		String hook,
+		long calls,
+		long resolved,
+		long rejected,
+		long exceptions,
+		long queueP50,
+		long queueP99,
+		long queueMax,
+		long execP50,
+		long execP99,
+		long execMax
+	) {}
+
+	/**
+	 * The metrics of a single hook.
+	 */
+	private static class Entry {
+
+		/** Significant decimal digits kept by the histograms. (0.1% precision) */
+		private static final int PRECISION = 3;
+
+		private final ConcurrentHistogram queue = new ConcurrentHistogram(
+			PRECISION
+		);
+		private final ConcurrentHistogram exec = new ConcurrentHistogram(
+			PRECISION
+		);
+		private final LongAdder resolved = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+		private final LongAdder exceptions = new LongAdder();
+
+		private void count(Outcome outcome) {
+			switch (outcome) {
+				case RESOLVED -> resolved.increment();
+				case REJECTED -> rejected.increment();
+				case EXCEPTION -> exceptions.increment();
+			}
+		}
+
+		private Snapshot snapshot(String hook) {
+			final long resolvedCount = resolved.sum();
+			final long rejectedCount = rejected.sum();
+			final long exceptionsCount = exceptions.sum();
+
+			return new Snapshot(
+				hook,
+				resolvedCount + rejectedCount + exceptionsCount,
+				resolvedCount,
+				rejectedCount,
+				exceptionsCount,
+				queue.getValueAtPercentile(50),
+				queue.getValueAtPercentile(99),
+				queue.getMaxValue(),
+				exec.getValueAtPercentile(50),
+				exec.getValueAtPercentile(99),
+				exec.getMaxValue()
+			);
+		}
+	}
+
+	private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private static Entry entry(String hook) {
+		return entries.computeIfAbsent(hook, __ -> new Entry());
+	}
+
+	private static long toMicros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+	}
+
+	/**
+	 * Records a task processed by the interpreter.
+	 *
+	 * @param hook the hook name and tab suffix
+	 * @param outcome how the task ended
+	 * @param queueNanos the time spent in the queue
+	 * @param execNanos the time spent in Python
+	 */
+	public static void record(
+		String hook,
+		Outcome outcome,
+		long queueNanos,
+		long execNanos
+	) {
+		final Entry entry = entry(hook);
+		entry.queue.recordValue(toMicros(queueNanos));
+		entry.exec.recordValue(toMicros(execNanos));
+		entry.count(outcome);
+	}
+
+	/**
+	 * Records a task rejected before reaching the interpreter. (e.g. while the script is reloading)
+	 *
+	 * @param hook the hook name and tab suffix
+	 */
+	public static void recordRejected(String hook) {
+		entry(hook).count(Outcome.REJECTED);
+	}
+
+	/**
+	 * Returns the statistics of every recorded hook.
+	 *
+	 * @return the snapshots, sorted by hook
+	 */
+	public static List<Snapshot> snapshot() {
+		return entries
+			.entrySet()
+			.stream()
+			.map(e -> e.getValue().snapshot(e.getKey()))
+			.sorted(Comparator.comparing(Snapshot::hook))
+			.toList();
+	}
+
+	/**
+	 * Discards all the recorded metrics.
+	 */
+	public static void reset() {
+		entries.clear();
+	}
+}
@@ -1,7 +1,12 @@
 package lexfo.scalpel;
 
 import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.HttpService;
 import burp.api.montoya.http.message.HttpMessage;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.IntStream;
 
 /**
@@ -55,6 +60,27 @@ public class PythonUtils {
 		return ByteArray.byteArray(pythonBytes);
 	}
 
+	/**
+	 * Computes a key identifying a request by its content and target.
+	 * This allows Python to cache objects converted from a request without copying it first.
+	 *
+	 * @param request the request to identify
+	 * @return a hex encoded hash of the request's service and bytes
+	 */
+	public static String requestKey(HttpRequest request) {
+		final Hasher hasher = Hashing.murmur3_128().newHasher();
+		final HttpService service = request.httpService();
+
+		if (service != null) {
+			hasher
+				.putString(service.host(), StandardCharsets.UTF_8)
+				.putInt(service.port())
+				.putBoolean(service.secure());
+		}
+
+		return hasher.putBytes(request.toByteArray().getBytes()).hash().toString();
+	}
+
 	/**
 	 *    Updates the specified HttpMessage object's header with the specified name and value.
 	 *    Creates the header when it doesn't exist.
@@ -120,7 +120,13 @@ public class Scalpel implements BurpExtension {
 		}
 	}
 
-	private static void setupJepFromConfig(Config config) throws IOException {
+	/**
+	 * Loads the Jep native library from the default workspace.
+	 * (also used by the test harness to embed an interpreter outside of Burp)
+	 *
+	 * @param config The configuration to get the JDK path from.
+	 */
+	static void setupJepFromConfig(Config config) throws IOException {
 		final Path venvPath = Workspace
 			.getOrCreateDefaultWorkspace(config.getJdkPath())
 			.resolve(Workspace.VENV_DIR);
@@ -190,6 +196,9 @@ public class Scalpel implements BurpExtension {
 			config = new Config(API);
 			logConfig(config);
 
+			// Apply the configured log level.
+			ScalpelLogger.setLevel(config.getLogLevel());
+
 			setupJepFromConfig(config);
 
 			// Initialize Python task queue.
@@ -222,6 +231,12 @@ public class Scalpel implements BurpExtension {
 			// Inject dependency to solve circular dependency.
 			executor.setEditorsProvider(provider);
 
+			// Stop the provider's background work when the extension is unloaded.
+			API.extension().registerUnloadingHandler(provider::dispose);
+
+			// Close the trace file, if any.
+			API.extension().registerUnloadingHandler(Tracer::stop);
+
 			// Add editor tabs to Burp
 			API.userInterface().registerHttpRequestEditorProvider(provider);
 			API.userInterface().registerHttpResponseEditorProvider(provider);
@@ -6,11 +6,15 @@ import burp.api.montoya.ui.editor.extension.ExtensionProvidedHttpRequestEditor;
 import burp.api.montoya.ui.editor.extension.ExtensionProvidedHttpResponseEditor;
 import burp.api.montoya.ui.editor.extension.HttpRequestEditorProvider;
 import burp.api.montoya.ui.editor.extension.HttpResponseEditorProvider;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
-import javax.swing.SwingUtilities;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.swing.Timer;
 
 /**
   Provides a new ScalpelProvidedEditor object for editing HTTP requests or responses.
@@ -29,7 +33,23 @@ public class ScalpelEditorProvider
 	*/
 	private final ScalpelExecutor executor;
 
-	private LinkedList<WeakReference<ScalpelEditorTabbedPane>> editorsRefs = new LinkedList<>();
+	/**
+    Weak references to the editors provided to Burp, which are discarded by Burp without notice.
+	*/
+	private final Set<WeakReference<ScalpelEditorTabbedPane>> editorsRefs = ConcurrentHashMap.newKeySet();
+
+	/**
+    Receives the references of the editors that were garbage collected, so they can be pruned without scanning the registry.
+	*/
+	private final ReferenceQueue<ScalpelEditorTabbedPane> collectedEditors = new ReferenceQueue<>();
+
+	/**
+    Periodically releases the messages of the editors that stayed hidden for too long.
+	*/
+	private final Timer idleEditorsTimer = new Timer(
+		Constants.IDLE_EDITOR_CHECK_INTERVAL_MS,
+		__ -> trimIdleEditors()
+	);
 
 	/**
     Constructs a new ScalpelEditorProvider object with the specified MontoyaApi object and ScalpelExecutor object.
@@ -40,6 +60,28 @@ public class ScalpelEditorProvider
 	public ScalpelEditorProvider(MontoyaApi API, ScalpelExecutor executor) {
 		this.API = API;
 		this.executor = executor;
+		this.idleEditorsTimer.start();
+	}
+
+	/**
+    Stops the background work of the provider.
+    (called when the extension is unloaded)
+	*/
+	public void dispose() {
+		idleEditorsTimer.stop();
+	}
+
+	/**
+    Releases the messages of the editors that have been hidden for longer than the configured timeout.
+    (called from the Swing thread)
+	*/
+	private void trimIdleEditors() {
+		final long timeout = executor.getConfig().getIdleEditorTimeout();
+		if (timeout <= 0) {
+			return;
+		}
+
+		liveEditors().forEach(editor -> editor.trimIfIdle(timeout * 1000));
 	}
 
 	/**
@@ -59,7 +101,7 @@ public class ScalpelEditorProvider
 			this,
 			executor
 		);
-		editorsRefs.add(new WeakReference<>(editor));
+		registerEditor(editor);
 		return editor;
 	}
 
@@ -80,43 +122,68 @@ public class ScalpelEditorProvider
 			this,
 			executor
 		);
-		editorsRefs.add(new WeakReference<>(editor));
+		registerEditor(editor);
 		return editor;
 	}
 
-	private void forceGarbageCollection() {
-		final WeakReference<Object> ref = new WeakReference<Object>(
-			new Object()
-		);
-		// The above object may now be garbage collected.
+	/**
+    Keeps a weak reference to a provided editor so it can be reset when the script changes.
 
-		while (ref.get() != null) {
-			System.gc();
+    @param editor The editor to register.
+	*/
+	private void registerEditor(ScalpelEditorTabbedPane editor) {
+		pruneCollectedEditors();
+		editorsRefs.add(new WeakReference<>(editor, collectedEditors));
+	}
+
+	/**
+    Removes the references of the editors that were garbage collected since the last call.
+    Only the enqueued references are visited.
+	*/
+	private void pruneCollectedEditors() {
+		Reference<? extends ScalpelEditorTabbedPane> ref;
+		while ((ref = collectedEditors.poll()) != null) {
+			editorsRefs.remove(ref);
 		}
 	}
 
-	public synchronized void resetEditors() {
+	/**
+    Returns the editors that are still alive.
+
+    @return Strong references to the live editors.
+	*/
+	private List<ScalpelEditorTabbedPane> liveEditors() {
+		pruneCollectedEditors();
+
+		// Editors may be collected between the prune and the dereference.
+		return editorsRefs
+			.stream()
+			.map(WeakReference::get)
+			.filter(Objects::nonNull)
+			.toList();
+	}
+
+	/**
+    Recreates the tabs of every live editor.
+    The hooks are listed and the messages rendered in background threads,
+    each editor then applies its new tabs on the Swing thread in a single batch.
+
+    @return A future completed when every editor has been recreated.
+	*/
+	public synchronized CompletableFuture<Void> resetEditors() {
 		ScalpelLogger.debug("Resetting editors...");
-		// Destroy all unused editors to avoid useless expensive callbacks.
-		// TODO: Improve this by using ReferenceQueue
-		// https://docs.oracle.com/en/java/javase/17/docs/api/java.base/java/lang/ref/ReferenceQueue.html
-		// https://docs.oracle.com/en/java/javase/17/docs/api/java.base/java/lang/ref/Reference.html#isEnqueued()
-		forceGarbageCollection();
-
-		// Clean the list
-		this.editorsRefs =
-			this.editorsRefs.parallelStream()
-				.filter(weakRef -> weakRef.get() != null)
-				.collect(Collectors.toCollection(LinkedList::new));
-
-		SwingUtilities.invokeLater(() -> {
-			this.editorsRefs.parallelStream()
-				.map(WeakReference::get)
-				.map(ScalpelEditorTabbedPane::recreateEditorsAsync)
-				.forEach(f -> f.join());
-
-			ScalpelLogger.debug("Editors reset.");
-		});
+
+		// Unused editors are pruned as the GC collects them, to avoid useless expensive callbacks.
+		final List<ScalpelEditorTabbedPane> editors = liveEditors();
+
+		return CompletableFuture
+			.allOf(
+				editors
+					.stream()
+					.map(ScalpelEditorTabbedPane::recreateEditorsAsync)
+					.toArray(CompletableFuture[]::new)
+			)
+			.thenRun(() -> ScalpelLogger.debug("Editors reset."));
 	}
 
 	public CompletableFuture<Void> resetEditorsAsync() {
@@ -10,17 +10,35 @@ import burp.api.montoya.ui.Selection;
 import burp.api.montoya.ui.editor.extension.EditorCreationContext;
 import burp.api.montoya.ui.editor.extension.ExtensionProvidedHttpRequestEditor;
 import burp.api.montoya.ui.editor.extension.ExtensionProvidedHttpResponseEditor;
+import com.google.common.hash.HashCode;
+import java.awt.BorderLayout;
+import java.awt.CardLayout;
 import java.awt.Component;
+import java.awt.GridBagLayout;
+import java.awt.event.HierarchyEvent;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import lexfo.scalpel.ScalpelExecutor.CallableData;
 import lexfo.scalpel.editors.AbstractEditor;
 import lexfo.scalpel.editors.IMessageEditor;
@@ -45,10 +63,41 @@ public class ScalpelEditorTabbedPane
 		The editor swing UI component.
 	*/
 	private final JTabbedPane pane = new JTabbedPane();
+
+	/**
+		The displayed component, switching between the tabs and the rendering placeholder.
+	*/
+	private final JPanel container = new JPanel(new CardLayout());
+
+	private static final String TABS_CARD = "tabs";
+	private static final String PLACEHOLDER_CARD = "placeholder";
+
+	/**
+		Incremented each time a message is rendered,
+		results of renders started for a previous message are discarded.
+	*/
+	private final AtomicLong renderToken = new AtomicLong();
+
+	/**
+		The render token of the displayed tabs.
+		(only written from the Swing thread)
+	*/
+	private volatile long displayedToken = 0;
+
+	/**
+		When the editor was last displayed. (System.currentTimeMillis())
+	*/
+	private volatile long lastShownTime = System.currentTimeMillis();
+
+	/**
+		The message of a trimmed editor, rendered again when the editor is shown.
+		Only the rendered contents are released, the message is kept so the editor is never left blank.
+	*/
+	private volatile HttpRequestResponse trimmedRequestResponse = null;
 	/**
 		The HTTP request or response being edited.
 	*/
-	private HttpRequestResponse _requestResponse;
+	private volatile HttpRequestResponse _requestResponse;
 
 	/**
 		The Montoya API object.
@@ -80,7 +129,42 @@ public class ScalpelEditorTabbedPane
 	*/
 	private final ScalpelExecutor executor;
 
-	private final ArrayList<IMessageEditor> editors = new ArrayList<>();
+	/**
+		The tabs editors, replaced as a whole when the editors are recreated
+		so they can be iterated from any thread.
+	*/
+	private volatile List<IMessageEditor> editors = List.of();
+
+	/**
+		The editors that rendered the current message.
+		In lazy mode, the other editors are rendered the first time they are selected.
+	*/
+	private final Set<IMessageEditor> renderedEditors = ConcurrentHashMap.newKeySet();
+
+	/**
+		The editors by tab, so they can be reused when the editors are recreated.
+		(only accessed while holding the pane's lock)
+	*/
+	private Map<HookTabInfo, IMessageEditor> editorsByTab = Map.of();
+
+	/**
+		Set while the tabs are being replaced, to ignore the intermediate selection changes.
+		(only accessed from the Swing thread)
+	*/
+	private boolean isUpdatingTabs = false;
+
+	/**
+		A message and the hash of its content in the EditorRenderCache.
+
+		@param reqRes The hashed message.
+		@param hash Its content hash.
+	*/
+	private record HashedMessage(HttpRequestResponse reqRes, HashCode hash) {}
+
+	/**
+		The last hashed message, so the tabs rendering it don't hash it again.
+	*/
+	private volatile HashedMessage lastHashed = null;
 
 	/**
 		req_edit_ or res_edit
@@ -143,6 +227,26 @@ public class ScalpelEditorTabbedPane
 		// req_edit_out / res_edit_out
 		this.hookOutPrefix = this.hookPrefix + Constants.OUT_SUFFIX;
 
+		container.add(pane, TABS_CARD);
+		container.add(createPlaceholder(), PLACEHOLDER_CARD);
+
+		// Render lazy tabs when they are selected.
+		pane.addChangeListener(__ -> {
+			if (!isUpdatingTabs) {
+				renderSelectedEditor();
+			}
+		});
+
+		// Track when the editor is displayed, to release the message when it stays hidden.
+		container.addHierarchyListener(e -> {
+			if (
+				(e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 &&
+				container.isShowing()
+			) {
+				onShown();
+			}
+		});
+
 		try {
 			this.recreateEditors();
 			ScalpelLogger.log(
@@ -298,19 +402,167 @@ public class ScalpelEditorTabbedPane
 			});
 	}
 
+	/**
+		The editors created for the script hooks.
+
+		@param editors The editors, in their tab order.
+		@param byTab The editors by tab, so they can be reused by the next recreation.
+	*/
+	private record CreatedEditors(
+		List<IMessageEditor> editors,
+		Map<HookTabInfo, IMessageEditor> byTab
+	) {}
+
 	/**
 		Recreates the editors tabs.
 		
-		Calls Python to get the tabs name.
+		Calls Python to get the tabs name and render the current message,
+		only the resulting tabs are applied on the Swing thread.
+		The Python calls run without holding the pane's lock, so Burp isn't blocked in setRequestResponse() meanwhile.
 	*/
-	public synchronized void recreateEditors() {
-		// Destroy existing editors
-		this.pane.removeAll();
-		this.editors.clear();
+	public void recreateEditors() {
+		final ScalpelEvents.EditorRecreate event = new ScalpelEvents.EditorRecreate();
+		event.begin();
+
+		final Map<HookTabInfo, IMessageEditor> previousEditors;
+		synchronized (this) {
+			previousEditors = this.editorsByTab;
+		}
+
+		final CreatedEditors created = createEditors(previousEditors);
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.type = type.name();
+			event.tool = ctx.toolSource().toolType().toolName();
+			event.tabs = created.editors().size();
+			event.commit();
+		}
+
+		// Replace the existing editors, messages set from now on are rendered with them.
+		final long token;
+		final HttpRequestResponse reqRes;
+		synchronized (this) {
+			this.editors = created.editors();
+			this.editorsByTab = created.byTab();
+			token = renderToken.incrementAndGet();
+			reqRes = this._requestResponse;
+		}
+
+		// Render the current message with the new editors, unless another message was set in the meantime.
+		final List<IMessageEditor> enabledEditors = editorsToDisplay(
+			created.editors(),
+			reqRes,
+			token
+		);
+		if (isCurrentRender(token)) {
+			displayTabs(enabledEditors, token);
+		}
+	}
+
+	/**
+		Whether a render is still the latest one.
+
+		@param token The token of the render.
+		@return False when another message was set since the render started.
+	*/
+	private boolean isCurrentRender(long token) {
+		return renderToken.get() == token;
+	}
+
+	/**
+		Whether only the selected tab is rendered.
 
+		@return True when the tabs are rendered the first time they are selected.
+	*/
+	private boolean isLazy() {
+		return executor.getConfig().isLazyEditorTabs();
+	}
+
+	/**
+		Returns the tabs to display for a new message.
+		Renders every tab unless in lazy mode, where they are all displayed and rendered once selected.
+
+		@param editors The editors to render the message in.
+		@param reqRes The message to render.
+		@param token The token of the render.
+		@return The editors to display, in their tab order.
+	*/
+	private List<IMessageEditor> editorsToDisplay(
+		List<IMessageEditor> editors,
+		HttpRequestResponse reqRes,
+		long token
+	) {
+		if (isCurrentRender(token)) {
+			renderedEditors.clear();
+		}
+
+		if (reqRes == null) {
+			return List.of();
+		}
+
+		if (isLazy()) {
+			return editors;
+		}
+
+		return renderEditors(editors, reqRes, token);
+	}
+
+	/**
+		Renders the current message in the selected tab if it wasn't yet.
+		(lazy mode only, called from the Swing thread)
+	*/
+	private void renderSelectedEditor() {
+		final HttpRequestResponse reqRes = this._requestResponse;
+		if (reqRes == null || !isLazy()) {
+			return;
+		}
+
+		final Component selectedComponent = pane.getSelectedComponent();
+		editors
+			.stream()
+			.filter(e -> e.uiComponent() == selectedComponent)
+			.findFirst()
+			.filter(renderedEditors::add)
+			.ifPresent(editor -> Async.run(() -> renderLazily(editor, reqRes)));
+	}
+
+	/**
+		Renders a message in a single tab, and hides it when its hook has nothing to display.
+		Calls Python, so this should not run on the Swing thread.
+
+		@param editor The editor to render the message in.
+		@param reqRes The message to render.
+	*/
+	private void renderLazily(
+		IMessageEditor editor,
+		HttpRequestResponse reqRes
+	) {
+		if (editor.setRequestResponseInternal(reqRes)) {
+			return;
+		}
+
+		// The hook disabled the tab, remove it unless another message was set in the meantime.
+		SwingUtilities.invokeLater(() -> {
+			if (this._requestResponse == reqRes) {
+				pane.remove(editor.uiComponent());
+			}
+		});
+	}
+
+	/**
+		Creates an editor for each tab found in the script hooks.
+		Editors of tabs whose hooks didn't change are reused instead of being instantiated again.
+
+		@param previousEditors The current editors by tab.
+		@return The created editors, empty when the hooks can't be listed.
+	*/
+	private CreatedEditors createEditors(
+		Map<HookTabInfo, IMessageEditor> previousEditors
+	) {
 		final var callables = getCallables();
 		if (callables == null) {
-			return;
+			return new CreatedEditors(List.of(), Map.of());
 		}
 
 		// Retain only correct prefixes and parse hook name
@@ -319,57 +571,289 @@ public class ScalpelEditorTabbedPane
 		// Merge the individual hooks infos
 		final Stream<HookTabInfo> mergedTabInfo = mergeHookTabInfo(hooks);
 
+		final List<IMessageEditor> newEditors = new ArrayList<>();
+		final Map<HookTabInfo, IMessageEditor> newEditorsByTab = new HashMap<>();
+
 		// Create the editors
-		mergedTabInfo.forEach(tabInfo -> {
-			ScalpelLogger.debug("Creating tab for " + tabInfo);
+		mergedTabInfo.forEachOrdered(tabInfo -> {
+			// Same name, mode and directions: the existing editor can display the tab.
+			final IMessageEditor editor = Optional
+				.ofNullable(previousEditors.get(tabInfo))
+				.orElseGet(() -> createEditor(tabInfo));
+
+			newEditors.add(editor);
+			newEditorsByTab.put(tabInfo, editor);
+		});
+
+		// Editors of removed or changed tabs are released once replaced.
+		return new CreatedEditors(newEditors, newEditorsByTab);
+	}
+
+	/**
+		Instantiates the editor implementation corresponding to a tab mode.
+
+		@param tabInfo The tab to create an editor for.
+		@return The created editor.
+	*/
+	private IMessageEditor createEditor(HookTabInfo tabInfo) {
+		ScalpelLogger.debug("Creating tab for " + tabInfo);
 
-			// Get editor implementation corresponding to mode.
-			final Class<? extends AbstractEditor> dispatchedEditor = modeToEditorMap.getOrDefault(
-				tabInfo.mode(),
-				ScalpelRawEditor.class
+		// Get editor implementation corresponding to mode.
+		final Class<? extends AbstractEditor> dispatchedEditor = modeToEditorMap.getOrDefault(
+			tabInfo.mode(),
+			ScalpelRawEditor.class
+		);
+
+		final AbstractEditor editor;
+		try {
+			// There should be a better way to do this..
+			final var construcor = dispatchedEditor.getConstructor(
+				String.class,
+				Boolean.class,
+				MontoyaApi.class,
+				EditorCreationContext.class,
+				EditorType.class,
+				ScalpelEditorTabbedPane.class,
+				ScalpelExecutor.class
 			);
 
-			final AbstractEditor editor;
-			try {
-				// There should be a better way to do this..
-				final var construcor = dispatchedEditor.getConstructor(
-					String.class,
-					Boolean.class,
-					MontoyaApi.class,
-					EditorCreationContext.class,
-					EditorType.class,
-					ScalpelEditorTabbedPane.class,
-					ScalpelExecutor.class
+			editor =
+				construcor.newInstance(
+					tabInfo.name(),
+					tabInfo.directions.contains(this.hookOutPrefix), // Read-only tab if no "out" hook.
+					API,
+					ctx,
+					type,
+					this,
+					executor
 				);
+		} catch (Throwable ex) {
+			ScalpelLogger.fatal("FATAL: Invalid editor constructor");
+			// Should never happen as long as the constructor has not been overriden by an abstract declaration.
+			throw new RuntimeException(ex);
+		}
+		ScalpelLogger.debug("Successfully created tab for " + tabInfo);
+
+		return editor;
+	}
+
+	/**
+		Renders a message in the editors.
+		Calls Python, so this should not run on the Swing thread.
+
+		@param editors The editors to render the message in.
+		@param reqRes The message to render.
+		@param token The token of the render, editors are skipped once it is outdated.
+		@return The editors enabled for the message, in their tab order.
+	*/
+	private List<IMessageEditor> renderEditors(
+		List<IMessageEditor> editors,
+		HttpRequestResponse reqRes,
+		long token
+	) {
+		if (reqRes == null) {
+			return List.of();
+		}
+
+		// Render every tab at once, the editors then read their content from the cache.
+		prefetchRenders(editors, reqRes);
+
+		final List<IMessageEditor> enabledEditors = editors
+			.parallelStream()
+			.filter(e ->
+				isCurrentRender(token) && e.setRequestResponseInternal(reqRes)
+			)
+			.toList();
 
-				editor =
-					construcor.newInstance(
-						tabInfo.name(),
-						tabInfo.directions.contains(this.hookOutPrefix), // Read-only tab if no "out" hook.
-						API,
-						ctx,
-						type,
-						this,
-						executor
-					);
-			} catch (Throwable ex) {
-				ScalpelLogger.fatal("FATAL: Invalid editor constructor");
-				// Should never happen as long as the constructor has not been overriden by an abstract declaration.
-				throw new RuntimeException(ex);
+		if (isCurrentRender(token)) {
+			renderedEditors.addAll(editors);
+		}
+
+		return enabledEditors;
+	}
+
+	/**
+		Replaces the displayed tabs in a single batch on the Swing thread.
+		Outdated renders are discarded.
+
+		@param enabledEditors The editors to display.
+		@param token The token of the render.
+	*/
+	private void displayTabs(List<IMessageEditor> enabledEditors, long token) {
+		final Runnable update = () -> {
+			// A newer message is being rendered.
+			if (!isCurrentRender(token)) {
+				return;
 			}
-			ScalpelLogger.debug("Successfully created tab for " + tabInfo);
+			displayedToken = token;
 
-			this.editors.add(editor);
+			// Keep the selected tab when it is still displayed.
+			final Component selected = pane.getSelectedComponent();
 
-			if (
-				this._requestResponse != null &&
-				editor.setRequestResponseInternal(_requestResponse)
-			) {
-				this.addEditorToDisplayedTabs(editor);
+			isUpdatingTabs = true;
+			try {
+				pane.removeAll();
+				enabledEditors.forEach(this::addEditorToDisplayedTabs);
+
+				if (selected != null && pane.indexOfComponent(selected) != -1) {
+					pane.setSelectedComponent(selected);
+				}
+			} finally {
+				isUpdatingTabs = false;
+			}
+
+			showCard(TABS_CARD);
+			renderSelectedEditor();
+		};
+
+		if (SwingUtilities.isEventDispatchThread()) {
+			update.run();
+		} else {
+			SwingUtilities.invokeLater(update);
+		}
+	}
+
+	/**
+		Shows the rendering placeholder if the render is still running after a short delay.
+
+		@param token The token of the render.
+	*/
+	private void showPlaceholderLater(long token) {
+		final Timer timer = new Timer(
+			Constants.EDITOR_PLACEHOLDER_DELAY_MS,
+			__ -> {
+				if (isCurrentRender(token) && displayedToken != token) {
+					showCard(PLACEHOLDER_CARD);
+				}
+			}
+		);
+		timer.setRepeats(false);
+		timer.start();
+	}
+
+	/**
+		Displays the tabs or the rendering placeholder.
+		(called from the Swing thread)
+
+		@param card TABS_CARD or PLACEHOLDER_CARD
+	*/
+	private void showCard(String card) {
+		((CardLayout) container.getLayout()).show(container, card);
+	}
+
+	/**
+		Creates the component displayed while the tabs are rendering.
+
+		@return The placeholder component.
+	*/
+	private static JComponent createPlaceholder() {
+		final JLabel label = new JLabel("Rendering…", SwingConstants.CENTER);
+
+		final JProgressBar progress = new JProgressBar();
+		progress.setIndeterminate(true);
+
+		final JPanel content = new JPanel(new BorderLayout(0, 5));
+		content.add(label, BorderLayout.NORTH);
+		content.add(progress, BorderLayout.CENTER);
+
+		// Center the content.
+		final JPanel placeholder = new JPanel(new GridBagLayout());
+		placeholder.add(content);
+		return placeholder;
+	}
+
+	/**
+		Renders the trimmed message again when the editor is displayed.
+		(called from the Swing thread)
+	*/
+	private void onShown() {
+		lastShownTime = System.currentTimeMillis();
+
+		final HttpRequestResponse trimmed = trimmedRequestResponse;
+		if (trimmed == null) {
+			return;
+		}
+		trimmedRequestResponse = null;
+
+		// Unless Burp set another message meanwhile.
+		Async.run(() -> {
+			synchronized (this) {
+				if (this._requestResponse == null) {
+					setRequestResponse(trimmed);
+				}
 			}
 		});
 	}
 
+	/**
+		Releases the editors content if the editor has been hidden for too long.
+		Modified editors are kept so the user's changes aren't lost.
+		(called from the Swing thread)
+
+		@param timeoutMs The time (in milliseconds) after which a hidden editor is trimmed.
+	*/
+	public void trimIfIdle(long timeoutMs) {
+		if (container.isShowing()) {
+			lastShownTime = System.currentTimeMillis();
+			return;
+		}
+
+		final HttpRequestResponse reqRes = this._requestResponse;
+		if (
+			reqRes == null ||
+			System.currentTimeMillis() - lastShownTime < timeoutMs
+		) {
+			return;
+		}
+
+		// Don't block the Swing thread while a message is being set.
+		Async.run(() -> trim(reqRes));
+	}
+
+	/**
+		Releases the editors content, the message is kept aside to be rendered again once shown.
+
+		@param reqRes The displayed message, nothing is done if another one was set since.
+	*/
+	private synchronized void trim(HttpRequestResponse reqRes) {
+		if (this._requestResponse != reqRes || isModified()) {
+			return;
+		}
+
+		ScalpelLogger.trace("TabbedPane: trimming idle editor");
+
+		// Discard the renders in progress.
+		renderToken.incrementAndGet();
+
+		this.trimmedRequestResponse = reqRes;
+		this._requestResponse = null;
+		this.lastHashed = null;
+		renderedEditors.clear();
+		editors.forEach(IMessageEditor::trim);
+	}
+
+	/**
+		Returns the content hash of a message for the EditorRenderCache keys,
+		it is computed once for all the tabs rendering the message.
+
+		@param reqRes The message to render.
+		@return The hash of the messages passed to this pane's hooks.
+	*/
+	public HashCode contentHash(HttpRequestResponse reqRes) {
+		final HashedMessage last = lastHashed;
+		if (last != null && last.reqRes() == reqRes) {
+			return last.hash();
+		}
+
+		final HashCode hash = EditorRenderCache.contentHash(
+			type == EditorType.REQUEST ? reqRes.request() : reqRes.response(),
+			type == EditorType.RESPONSE ? reqRes.request() : null,
+			AbstractEditor.getHttpService(reqRes)
+		);
+		lastHashed = new HashedMessage(reqRes, hash);
+		return hash;
+	}
+
 	/**
 		Recreates the editors tabs asynchronously.
 		
@@ -420,14 +904,28 @@ public class ScalpelEditorTabbedPane
 	 * @return
 	 */
 	public IMessageEditor selectEditor() {
-		final var selectedEditor = editors.get(pane.getSelectedIndex());
+		final List<IMessageEditor> editors = this.editors;
+		if (editors.isEmpty()) {
+			return null;
+		}
+
+		// Hidden tabs are not in the pane, so look the editor up by its component.
+		final Component selectedComponent = pane.getSelectedComponent();
+		final var selectedEditor = editors
+			.stream()
+			.filter(e -> e.uiComponent() == selectedComponent)
+			.findFirst()
+			.orElse(editors.get(0));
+
 		if (selectedEditor.isModified()) {
 			return selectedEditor;
 		}
 
 		// TODO: Mimic burp update behaviour.
+		// Editors that didn't render the current message may still hold the previous one.
 		final var modifiedEditors = editors
 			.stream()
+			.filter(renderedEditors::contains)
 			.filter(IMessageEditor::isModified);
 
 		return modifiedEditors.findFirst().orElse(selectedEditor);
@@ -455,7 +953,13 @@ public class ScalpelEditorTabbedPane
 	 * @return The new HTTP message.
 	 */
 	private HttpMessage processOutboundMessage() {
-		return selectEditor().processOutboundMessage();
+		// Until the current message is displayed, the editors may still hold the previous message's edits.
+		if (!isLazy() && displayedToken != renderToken.get()) {
+			return null;
+		}
+
+		final IMessageEditor editor = selectEditor();
+		return editor != null ? editor.processOutboundMessage() : null;
 	}
 
 	/**
@@ -508,6 +1012,59 @@ public class ScalpelEditorTabbedPane
 		pane.addTab(displayedName, component);
 	}
 
+	/**
+	 * Renders the tabs missing from the EditorRenderCache with a single Python call,
+	 * so the message is converted once instead of once per tab.
+	 *
+	 * @param editors The editors to render the message in.
+	 * @param reqRes The HttpRequestResponse to render.
+	 */
+	private void prefetchRenders(
+		List<IMessageEditor> editors,
+		HttpRequestResponse reqRes
+	) {
+		if (reqRes == null) {
+			return;
+		}
+
+		// Tab name -> render key
+		final Map<String, EditorRenderCache.Key> missing = new HashMap<>();
+		editors
+			.stream()
+			.filter(AbstractEditor.class::isInstance)
+			.map(AbstractEditor.class::cast)
+			.forEach(editor ->
+				editor
+					.renderKey(reqRes)
+					.filter(key -> !EditorRenderCache.contains(key))
+					.ifPresent(key -> missing.put(editor.caption(), key))
+			);
+
+		// A single tab doesn't benefit from batching.
+		if (missing.size() < 2) {
+			return;
+		}
+
+		final HttpMessage msg = type == EditorType.REQUEST
+			? reqRes.request()
+			: reqRes.response();
+
+		executor
+			.callEditorCallbacksIn(
+				msg,
+				reqRes.request(),
+				AbstractEditor.getHttpService(reqRes),
+				List.copyOf(missing.keySet())
+			)
+			.ifPresent(results ->
+				results.forEach((tab, content) ->
+					Optional
+						.ofNullable(missing.get(tab))
+						.ifPresent(key -> EditorRenderCache.put(key, content))
+				)
+			);
+	}
+
 	/**
 		Sets the HttpRequestResponse to be edited.
 		(called by Burp)
@@ -521,13 +1078,39 @@ public class ScalpelEditorTabbedPane
 		ScalpelLogger.trace("TabbedPane: setRequestResponse()");
 
 		this._requestResponse = requestResponse;
+		this.trimmedRequestResponse = null;
 
-		// Hide disabled tabs
-		this.pane.removeAll();
-		editors
-			.parallelStream()
-			.filter(e -> e.setRequestResponseInternal(requestResponse))
-			.forEach(this::addEditorToDisplayedTabs);
+		final long token = renderToken.incrementAndGet();
+		final List<IMessageEditor> editors = this.editors;
+
+		// Drop the previous message and its edits,
+		// so they can't be read back as edits of the new message before it is rendered.
+		renderedEditors.clear();
+		editors.forEach(IMessageEditor::trim);
+
+		// Lazy tabs are rendered once selected, so there is nothing to wait for.
+		if (requestResponse == null || isLazy()) {
+			displayTabs(editorsToDisplay(editors, requestResponse, token), token);
+			return;
+		}
+
+		// Render in the background so Burp stays responsive,
+		// a placeholder is displayed if it takes a while.
+		showPlaceholderLater(token);
+		Async
+			.run(() -> {
+				// Hide disabled tabs
+				final List<IMessageEditor> enabledEditors = renderEditors(
+					editors,
+					requestResponse,
+					token
+				);
+				displayTabs(enabledEditors, token);
+			})
+			.exceptionally(e -> {
+				ScalpelLogger.logStackTrace(e);
+				return null;
+			});
 	}
 
 	/**
@@ -568,15 +1151,79 @@ public class ScalpelEditorTabbedPane
 	public boolean isEnabledFor(HttpRequestResponse requestResponse) {
 		ScalpelLogger.trace("TabbedPane: isEnabledFor()");
 		try {
-			return editors
-				.parallelStream()
-				.anyMatch(e -> e.isEnabledFor(requestResponse));
+			final List<IMessageEditor> editors = this.editors;
+
+			if (editors.isEmpty()) {
+				return false;
+			}
+
+			// Only call match(), the tabs are rendered once selected.
+			if (isLazy()) {
+				return (
+					requestResponse == null ||
+					!executor.hasMatchCallback() ||
+					awaitEnabled(Async.supply(() -> matches(requestResponse)))
+				);
+			}
+
+			return awaitEnabled(
+				Async.supply(() -> {
+					prefetchRenders(editors, requestResponse);
+
+					return editors
+						.parallelStream()
+						.anyMatch(e -> e.isEnabledFor(requestResponse));
+				})
+			);
 		} catch (Exception e) {
 			ScalpelLogger.logStackTrace(e);
 		}
 		return false;
 	}
 
+	/**
+		Waits for isEnabledFor()'s answer, up to EDITOR_ENABLED_TIMEOUT_MS.
+
+		@param enabled The pending answer.
+		@return The answer, or true when it takes longer.
+	*/
+	private static boolean awaitEnabled(CompletableFuture<Boolean> enabled)
+		throws InterruptedException, ExecutionException {
+		try {
+			return enabled.get(
+				Constants.EDITOR_ENABLED_TIMEOUT_MS,
+				TimeUnit.MILLISECONDS
+			);
+		} catch (TimeoutException e) {
+			// The hooks keep running on the Async pool and fill the render cache,
+			// meanwhile the tab shows the rendering placeholder and the tabs once rendered.
+			return true;
+		}
+	}
+
+	/**
+		Calls the match() hook for a message, without rendering the tabs.
+
+		@param reqRes The message to match.
+		@return Whether match() accepts the message, true when the call failed.
+	*/
+	private boolean matches(HttpRequestResponse reqRes) {
+		final HttpMessage msg = type == EditorType.REQUEST
+			? reqRes.request()
+			: reqRes.response();
+		if (msg == null) {
+			return false;
+		}
+
+		return executor
+			.callMatchEditor(
+				msg,
+				type == EditorType.RESPONSE ? reqRes.request() : null,
+				AbstractEditor.getHttpService(reqRes)
+			)
+			.orElse(true);
+	}
+
 	/**
 		Returns the name of the tab.
 		(called by Burp)
@@ -598,7 +1245,7 @@ public class ScalpelEditorTabbedPane
 	@Override
 	public Component uiComponent() {
 		// return codeArea;
-		return this.pane;
+		return this.container;
 	}
 
 	/**
@@ -609,7 +1256,8 @@ public class ScalpelEditorTabbedPane
 	*/
 	@Override
 	public Selection selectedData() {
-		return selectEditor().selectedData();
+		final IMessageEditor editor = selectEditor();
+		return editor != null ? editor.selectedData() : null;
 	}
 
 	/**
@@ -620,6 +1268,9 @@ public class ScalpelEditorTabbedPane
 	*/
 	@Override
 	public boolean isModified() {
-		return editors.stream().anyMatch(IMessageEditor::isModified);
+		return editors
+			.stream()
+			.filter(renderedEditors::contains)
+			.anyMatch(IMessageEditor::isModified);
 	}
 }
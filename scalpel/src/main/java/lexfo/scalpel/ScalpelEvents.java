@@ -0,0 +1,188 @@
+package lexfo.scalpel;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.handler.HttpRequestToBeSent;
+import burp.api.montoya.http.handler.HttpResponseReceived;
+import burp.api.montoya.http.message.HttpMessage;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events of the Scalpel task lifecycle.
+ *
+ * <p>They are recorded by any JFR recording of the Burp JVM, (e.g. started with jcmd &lt;pid&gt; JFR.start)
+ * and displayed in JDK Mission Control under the "Scalpel" category.
+ * Disabled events cost close to nothing, so they are always emitted.
+ *
+ * <p>A task is described by two duration events:
+ * {@link TaskQueued} spans from its submission by a Burp thread to its dequeue by the runner loop,
+ * and {@link HookInvoke} spans the Python call on the runner loop.
+ */
+public final class ScalpelEvents {
+
+	private static final String CATEGORY = "Scalpel";
+
+	private ScalpelEvents() {}
+
+	/**
+	 * Returns the size of the messages passed to a hook.
+	 * (computed from the body offset, as serializing the messages would copy large bodies on every recorded task)
+	 *
+	 * @param args the hook arguments
+	 * @return the total size in bytes of the HTTP messages and byte arrays
+	 */
+	static long messageSize(Object[] args) {
+		long size = 0;
+		for (final Object arg : args == null ? new Object[0] : args) {
+			if (arg instanceof HttpMessage msg) {
+				size += msg.bodyOffset() + msg.body().length();
+			} else if (arg instanceof ByteArray bytes) {
+				size += bytes.length();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the Burp tool a hook is called for.
+	 *
+	 * @param args the hook arguments
+	 * @return the tool name, or an empty string for editor hooks, which don't know it
+	 */
+	static String originTool(Object[] args) {
+		for (final Object arg : args == null ? new Object[0] : args) {
+			if (arg instanceof HttpRequestToBeSent req) {
+				return req.toolSource().toolType().toolName();
+			}
+			if (arg instanceof HttpResponseReceived res) {
+				return res.toolSource().toolType().toolName();
+			}
+		}
+		return "";
+	}
+
+	/**
+	 * Fields shared by the task events.
+	 */
+	abstract static class TaskEvent extends Event {
+
+		@Label("Hook")
+		@Description("Python hook name and tab suffix")
+		String hook;
+
+		@Label("Message Size")
+		@DataAmount
+		long messageSize;
+
+		@Label("Origin Tool")
+		@Description("Burp tool that sent the message, empty for editors")
+		String tool;
+
+		/**
+		 * Sets the task fields, only when the event is recorded.
+		 * Must be called after end(), so the duration threshold is known.
+		 *
+		 * @param hook the hook name and tab suffix
+		 * @param args the hook arguments
+		 */
+		void describe(String hook, Object[] args) {
+			if (!shouldCommit()) {
+				return;
+			}
+			this.hook = hook;
+			this.messageSize = messageSize(args);
+			this.tool = originTool(args);
+		}
+	}
+
+	/**
+	 * Time a task waited in the executor queue.
+	 */
+	@Name("lexfo.scalpel.TaskQueued")
+	@Label("Task Queued")
+	@Category({ CATEGORY, "Executor" })
+	@Description(
+		"From the task submission by a Burp thread to its dequeue by the runner loop"
+	)
+	@StackTrace(false)
+	static class TaskQueued extends TaskEvent {
+
+		@Label("Submitting Thread")
+		Thread submitter;
+	}
+
+	/**
+	 * A Python hook call on the runner loop.
+	 */
+	@Name("lexfo.scalpel.HookInvoke")
+	@Label("Hook Invoke")
+	@Category({ CATEGORY, "Executor" })
+	@Description("Python hook call, from the invoke start to its end")
+	@StackTrace(false)
+	static class HookInvoke extends TaskEvent {
+
+		@Label("Outcome")
+		String outcome;
+	}
+
+	/**
+	 * The initialization of a Python interpreter, running the framework and the user script.
+	 */
+	@Name("lexfo.scalpel.InterpreterInit")
+	@Label("Interpreter Init")
+	@Category({ CATEGORY, "Interpreter" })
+	@StackTrace(false)
+	static class InterpreterInit extends Event {
+
+		@Label("Script")
+		String script;
+
+		@Label("Generation")
+		@Description("Incremented on every interpreter (re)start")
+		long generation;
+
+		@Label("Success")
+		boolean success;
+	}
+
+	/**
+	 * The runner loop detected a change in the script, framework or config.
+	 */
+	@Name("lexfo.scalpel.HotReload")
+	@Label("Hot Reload")
+	@Category({ CATEGORY, "Interpreter" })
+	@StackTrace(false)
+	static class HotReload extends Event {
+
+		@Label("Script")
+		String script;
+
+		@Label("Generation")
+		@Description("Generation of the interpreter being replaced")
+		long generation;
+	}
+
+	/**
+	 * The editor tabs of a message editor were recreated.
+	 */
+	@Name("lexfo.scalpel.EditorRecreate")
+	@Label("Editor Recreate")
+	@Category({ CATEGORY, "Editors" })
+	@StackTrace(false)
+	static class EditorRecreate extends Event {
+
+		@Label("Editor Type")
+		String type;
+
+		@Label("Origin Tool")
+		String tool;
+
+		@Label("Tabs")
+		int tabs;
+	}
+}
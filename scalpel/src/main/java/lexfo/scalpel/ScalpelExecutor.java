@@ -10,6 +10,8 @@ import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.http.message.responses.HttpResponse;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -18,8 +20,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
-import java.util.stream.Stream;
 import jep.ClassEnquirer;
 import jep.ClassList;
 import jep.Interpreter;
@@ -121,7 +124,7 @@ public class ScalpelExecutor {
 		/**
 		 * Whether the task has been completed. (Used to break out of the awaitResult() loop in case of failure.)
 		 */
-		private Boolean finished = false;
+		private volatile boolean finished = false;
 
 		/**
 		 * The keyword arguments passed to the task.
@@ -133,6 +136,26 @@ public class ScalpelExecutor {
 		 */
 		private Optional<Object> result = Optional.empty();
 
+		/**
+		 * When the task was created, to measure the time spent in the queue.
+		 */
+		private final long createdAt = System.nanoTime();
+
+		/**
+		 * JFR event spanning the time spent in the queue.
+		 */
+		private final ScalpelEvents.TaskQueued queuedEvent = new ScalpelEvents.TaskQueued();
+
+		/**
+		 * The thread that submitted the task.
+		 */
+		private final Thread submitter = Thread.currentThread();
+
+		/**
+		 * The trace the task spans are recorded in, when tracing is enabled.
+		 */
+		private final Optional<Tracer.Trace> trace = Tracer.currentOrNew();
+
 		/**
 		 * Constructs a new Task object.
 		 *
@@ -145,6 +168,9 @@ public class ScalpelExecutor {
 			this.args = args;
 			this.kwargs = kwargs;
 
+			queuedEvent.submitter = submitter;
+			queuedEvent.begin();
+
 			ScalpelLogger.log("Created task: " + name);
 		}
 
@@ -196,6 +222,22 @@ public class ScalpelExecutor {
 			return finished;
 		}
 
+		/**
+		 * Returns the name the task metrics are recorded under,
+		 * editor hooks are suffixed with their tab name.
+		 *
+		 * @return the hook name and tab suffix.
+		 */
+		public String metricName() {
+			if (
+				kwargs != null &&
+				kwargs.get("callback_suffix") instanceof String suffix
+			) {
+				return name + suffix;
+			}
+			return name;
+		}
+
 		public synchronized void then(Consumer<Object> callback) {
 			Async.run(() -> this.await().ifPresent(callback));
 		}
@@ -203,11 +245,24 @@ public class ScalpelExecutor {
 		public synchronized void resolve(Object result) {
 			this.result = Optional.of(result);
 			this.finished = true;
+
+			// Wake the threads awaiting the task.
+			this.notifyAll();
 		}
 
 		public synchronized void reject() {
 			this.result = Optional.empty();
 			this.finished = true;
+
+			// Wake the threads awaiting the task, rejected tasks would otherwise be noticed after the await timeout.
+			this.notifyAll();
+		}
+
+		/**
+		 * Wakes the threads awaiting the task, so they check the executor state again.
+		 */
+		public synchronized void wakeUp() {
+			this.notifyAll();
 		}
 	}
 
@@ -250,16 +305,49 @@ public class ScalpelExecutor {
 
 	/**
 	 * Flag indicating whether the task runner loop is running.
+	 * (the runner state is read by the awaiting threads without holding the tasks lock)
 	 */
-	private Boolean isRunnerAlive = false;
+	private volatile boolean isRunnerAlive = false;
 
-	private Boolean isRunnerStarting = true;
+	private volatile boolean isRunnerStarting = true;
 
 	private final Config config;
 
 	private Optional<ScalpelEditorProvider> editorProvider = Optional.empty();
 
-	private Boolean isEnabled = true;
+	private volatile boolean isEnabled = true;
+
+	/**
+	 * The hooks found in the loaded script, memoized when the interpreter is initialized.
+	 */
+	private volatile Optional<List<CallableData>> callables = Optional.empty();
+
+	/**
+	 * Incremented each time an interpreter is (re)loaded, to invalidate results computed by the previous one.
+	 */
+	private final AtomicLong interpreterGeneration = new AtomicLong();
+
+	/**
+	 * The log level changed since the interpreter read it, applied by the runner once it is enabled.
+	 */
+	private final AtomicReference<ScalpelLogger.Level> pendingLogLevel = new AtomicReference<>();
+
+	/**
+	 * Mirrors the log level changes in Python, removed when the extension is unloaded.
+	 */
+	private final Consumer<ScalpelLogger.Level> logLevelListener = this::notifyLogLevel;
+
+	/**
+	 * Constructs an executor without a config nor a script, whose runner never starts.
+	 * The submitted tasks are queued until the executor is disabled.
+	 * (used by the tests to exercise the task queue without an interpreter)
+	 *
+	 * @param API the MontoyaApi object.
+	 */
+	ScalpelExecutor(MontoyaApi API) {
+		this.API = API;
+		this.config = null;
+	}
 
 	/**
 	 * Constructs a new ScalpelExecutor object.
@@ -295,20 +383,125 @@ public class ScalpelExecutor {
 				this.lastScriptModificationTimestamp = s.lastModified()
 			);
 
+		// Mirror log level changes in Python so it can skip disabled logging calls.
+		ScalpelLogger.addLevelListener(logLevelListener);
+		API
+			.extension()
+			.registerUnloadingHandler(() ->
+				ScalpelLogger.removeLevelListener(logLevelListener)
+			);
+
 		// Launch task thread.
 		this.script.ifPresent(s -> this.runner = this.launchTaskRunner());
 	}
 
+	/**
+	 * Queues a log level change for the Python logger.
+	 * The runner applies it once enabled, a new interpreter reads the level when it loads.
+	 *
+	 * @param level the new log level.
+	 */
+	private void notifyLogLevel(ScalpelLogger.Level level) {
+		pendingLogLevel.set(level);
+
+		synchronized (tasks) {
+			tasks.notifyAll();
+		}
+	}
+
+	/**
+	 * Applies the queued log level change, if any, to the Python logger.
+	 * (called by the runner)
+	 *
+	 * @param interp the running interpreter.
+	 */
+	private void applyPendingLogLevel(final SubInterpreter interp) {
+		final ScalpelLogger.Level level = pendingLogLevel.getAndSet(null);
+		if (level == null) {
+			return;
+		}
+
+		try {
+			interp.invoke(Constants.SET_LOG_LEVEL_CB_NAME, level.value());
+		} catch (Exception e) {
+			ScalpelLogger.logStackTrace("Failed to set the Python log level", e);
+		}
+	}
+
+	/**
+	 * Starts profiling the Python hooks, discarding the previous profile.
+	 *
+	 * @param durationSeconds the time after which the hooks stop being profiled.
+	 * @return true if the profiler was started.
+	 */
+	public boolean startHookProfiling(long durationSeconds) {
+		return safeJepInvoke(
+			Constants.START_PROFILING_CB_NAME,
+			new Object[] {
+				durationSeconds,
+				Constants.PROFILES_DIR_PATH.toString(),
+			},
+			Map.of(),
+			Boolean.class
+		)
+			.orElse(false);
+	}
+
+	/**
+	 * Stops profiling the Python hooks.
+	 * The profile is written as collapsed stacks and the slowest functions are logged.
+	 *
+	 * @return the written profile, empty if no hook was called or the interpreter was reloaded.
+	 */
+	public Optional<Path> stopHookProfiling() {
+		return safeJepInvoke(
+			Constants.STOP_PROFILING_CB_NAME,
+			String.class
+		)
+			.filter(path -> !path.isEmpty())
+			.map(Path::of);
+	}
+
 	public boolean isEnabled() {
 		return this.isEnabled;
 	}
 
+	/**
+	 * Get the current interpreter generation, incremented on each (re)load.
+	 * Results cached with an older generation were computed by a previous script.
+	 *
+	 * @return the interpreter generation.
+	 */
+	public long getInterpreterGeneration() {
+		return interpreterGeneration.get();
+	}
+
+	/**
+	 * Get the configuration used by the executor.
+	 *
+	 * @return the Config object.
+	 */
+	public Config getConfig() {
+		return config;
+	}
+
 	public void enable() {
 		this.isEnabled = true;
+		// Results cached while disabled are empty.
+		interpreterGeneration.incrementAndGet();
+
+		// Wake the runner up, so it applies the changes queued while disabled.
+		synchronized (tasks) {
+			tasks.notifyAll();
+		}
 	}
 
 	public void disable() {
 		this.isEnabled = false;
+		interpreterGeneration.incrementAndGet();
+
+		// The queued tasks won't be processed until the executor is enabled again, stop awaiting them.
+		tasks.forEach(Task::wakeUp);
 	}
 
 	/**
@@ -340,6 +533,7 @@ public class ScalpelExecutor {
 			} else if (rejectOnReload) {
 				// The runner is dead, reject this task to avoid blocking Burp when awaiting.
 				task.reject();
+				HookMetrics.recordRejected(task.metricName());
 			}
 		}
 
@@ -492,12 +686,53 @@ public class ScalpelExecutor {
 					break;
 				}
 				task.reject();
+				HookMetrics.recordRejected(task.metricName());
 			}
 		}
 	}
 
+	/**
+	 * Sets the trace the Python spans of the running task are recorded in.
+	 *
+	 * @param interp the runner interpreter.
+	 * @param trace the task trace, or null once the task is processed.
+	 */
+	private static void setPythonTrace(
+		final SubInterpreter interp,
+		final Tracer.Trace trace
+	) {
+		try {
+			interp.invoke(Constants.SET_TRACE_CB_NAME, (Object) trace);
+		} catch (Exception e) {
+			ScalpelLogger.logStackTrace("Failed to set the Python trace", e);
+		}
+	}
+
 	private void processTask(final SubInterpreter interp, final Task task) {
 		ScalpelLogger.trace("Processing task: " + task.name);
+		final long startedAt = System.nanoTime();
+		HookMetrics.Outcome outcome = HookMetrics.Outcome.EXCEPTION;
+
+		task.queuedEvent.end();
+		task.queuedEvent.describe(task.metricName(), task.args);
+		task.queuedEvent.commit();
+
+		final Tracer.Trace trace = task.trace.orElse(null);
+		if (trace != null) {
+			// Displayed on the submitting thread, which is blocked until the task is processed.
+			Tracer.record(
+				trace,
+				"queued " + task.metricName(),
+				"queue",
+				Tracer.fromNanoTime(task.createdAt),
+				Tracer.fromNanoTime(startedAt),
+				task.submitter
+			);
+			setPythonTrace(interp, trace);
+		}
+
+		final ScalpelEvents.HookInvoke invokeEvent = new ScalpelEvents.HookInvoke();
+		invokeEvent.begin();
 		try {
 			// Invoke Python function and get the returned value.
 			final Object pythonResult = interp.invoke(
@@ -509,17 +744,45 @@ public class ScalpelExecutor {
 			ScalpelLogger.trace("Executed task: " + task.name);
 
 			if (pythonResult != null) {
+				outcome = HookMetrics.Outcome.RESOLVED;
 				task.resolve(pythonResult);
 			} else {
+				outcome = HookMetrics.Outcome.REJECTED;
 				task.reject();
 			}
 		} catch (Exception e) {
 			task.reject();
 
-			if (!e.getMessage().contains("Unable to find object")) {
+			if (e.getMessage().contains("Unable to find object")) {
+				// The hook is not defined by the user script.
+				outcome = HookMetrics.Outcome.REJECTED;
+			} else {
 				ScalpelLogger.error("Error in task loop:");
 				ScalpelLogger.logStackTrace(e);
 			}
+		} finally {
+			HookMetrics.record(
+				task.metricName(),
+				outcome,
+				startedAt - task.createdAt,
+				System.nanoTime() - startedAt
+			);
+
+			invokeEvent.end();
+			invokeEvent.describe(task.metricName(), task.args);
+			invokeEvent.outcome = outcome.name();
+			invokeEvent.commit();
+
+			if (trace != null) {
+				setPythonTrace(interp, null);
+				Tracer.record(
+					trace,
+					"processTask " + task.metricName(),
+					"java",
+					Tracer.fromNanoTime(startedAt),
+					Tracer.nowMicros()
+				);
+			}
 		}
 
 		ScalpelLogger.trace("Processed task");
@@ -536,6 +799,7 @@ public class ScalpelExecutor {
 				ScalpelLogger.info(
 					"Config or Python files have changed, reloading interpreter..."
 				);
+				commitHotReloadEvent();
 				break;
 			}
 
@@ -547,6 +811,8 @@ public class ScalpelExecutor {
 					continue;
 				}
 
+				applyPendingLogLevel(interp);
+
 				// Extract the oldest pending task from the queue.
 				final Task task = tasks.poll();
 
@@ -562,26 +828,43 @@ public class ScalpelExecutor {
 					continue;
 				}
 
+				// The awaiting threads are woken when the task is resolved or rejected.
 				processTask(interp, task);
 
-				synchronized (task) {
-					// Wake threads awaiting the task.
-					task.notifyAll();
-					ScalpelLogger.trace("Notified " + task.name);
-				}
-
-				// Sleep the thread while there isn't any new tasks
-				tasks.wait(1000);
+				// Poll the next task right away, tasks queued while this one was processed
+				// already notified the queue and would wait for the timeout otherwise.
 			}
 		}
 	}
 
+	/**
+	 * Records a JFR event for the detected script, framework or config change.
+	 */
+	private void commitHotReloadEvent() {
+		final ScalpelEvents.HotReload event = new ScalpelEvents.HotReload();
+		if (event.shouldCommit()) {
+			event.script = script.map(File::getAbsolutePath).orElse("");
+			event.generation = interpreterGeneration.get();
+			event.commit();
+		}
+	}
+
 	// WARN: Declaring this method as synchronized cause deadlocks.
 	private void taskLoop() {
 		ScalpelLogger.info("Starting task loop.");
 
 		isRunnerStarting = true;
 
+		// The hooks may change with the reloaded script.
+		callables = Optional.empty();
+		interpreterGeneration.incrementAndGet();
+
+		// The new interpreter reads the current log level when it loads.
+		pendingLogLevel.set(null);
+
+		final ScalpelEvents.InterpreterInit initEvent = new ScalpelEvents.InterpreterInit();
+		initEvent.begin();
+
 		SubInterpreter interp;
 		try {
 			interp = initInterpreter();
@@ -590,6 +873,15 @@ public class ScalpelExecutor {
 			ScalpelLogger.logStackTrace("Failed to init interpreter", e);
 		}
 
+		initEvent.end();
+		if (initEvent.shouldCommit()) {
+			initEvent.script =
+				script.map(File::getAbsolutePath).orElse("");
+			initEvent.generation = interpreterGeneration.get();
+			initEvent.success = interp != null;
+			initEvent.commit();
+		}
+
 		if (interp != null) {
 			isRunnerAlive = true;
 			isRunnerStarting = false;
@@ -602,6 +894,14 @@ public class ScalpelExecutor {
 			}
 			// Log the error.
 			ScalpelLogger.log("Task loop has crashed");
+
+			// Release the interpreter before launching a new one, from the thread that created it as Jep requires.
+			// (an interpreter per hot reload leaked otherwise)
+			try {
+				interp.close();
+			} catch (Exception e) {
+				ScalpelLogger.logStackTrace("Failed to close the interpreter", e);
+			}
 		} else {
 			isRunnerAlive = false;
 			isRunnerStarting = false;
@@ -613,10 +913,13 @@ public class ScalpelExecutor {
 					IO.run(() -> wait(1000));
 				}
 			}
+			commitHotReloadEvent();
 		}
 
-		isRunnerAlive = false;
+		// Flag the restart before the death so awaiting threads never see both flags unset
+		// and give up on tasks that the next interpreter will process.
 		isRunnerStarting = true;
+		isRunnerAlive = false;
 
 		this.resetChangeIndicators();
 
@@ -672,6 +975,8 @@ public class ScalpelExecutor {
 	 */
 	@SuppressWarnings({ "unchecked" })
 	private SubInterpreter initInterpreter() {
+		// Closed when the initialization fails, as it isn't returned.
+		final AtomicReference<SubInterpreter> created = new AtomicReference<>();
 		try {
 			return framework
 				.map(framework -> {
@@ -688,6 +993,7 @@ public class ScalpelExecutor {
 								RessourcesUnpacker.PYTHON_PATH.toString()
 							)
 					);
+					created.set(interp);
 
 					var burpEnv = new HashMap<>(10);
 
@@ -744,6 +1050,9 @@ public class ScalpelExecutor {
 						throw new RuntimeException("No hooks were found.");
 					}
 
+					// Memoize the hooks so they can be looked up without a Python round trip.
+					this.callables = Optional.of(toCallableData(res));
+
 					// Return the initialized interpreter.
 					return interp;
 				})
@@ -751,6 +1060,7 @@ public class ScalpelExecutor {
 		} catch (Exception e) {
 			ScalpelLogger.error("Failed to instantiate interpreter:");
 			ScalpelLogger.logStackTrace(e);
+			Optional.ofNullable(created.get()).ifPresent(SubInterpreter::close);
 			throw e;
 		}
 	}
@@ -841,6 +1151,11 @@ public class ScalpelExecutor {
 		T msg,
 		HttpService service
 	) {
+		final long threshold = config.getLargeBodyThreshold();
+		if (threshold >= 0 && msg.body().length() > threshold) {
+			return callLargeBodyIntercepterCallback(msg, service);
+		}
+
 		// Call the corresponding Python callback and add a debug HTTP header.
 		return safeJepInvoke(
 			getMessageCbName(msg),
@@ -850,6 +1165,180 @@ public class ScalpelExecutor {
 		);
 	}
 
+	/**
+	 * Checks if a user hook opted in to receive bodies above the large body threshold.
+	 *
+	 * @param hookName the name of the user hook. (e.g. request)
+	 * @return true if the hook was decorated with @large_body, false otherwise.
+	 */
+	private boolean acceptsLargeBody(String hookName) {
+		return callables
+			.orElseGet(List::of)
+			.stream()
+			.filter(c -> c.name().equals(hookName))
+			.anyMatch(c ->
+				c.annotations().get(Constants.LARGE_BODY_ANNOTATION_KEY) != null
+			);
+	}
+
+	/**
+	 * Checks if the user script defines a match() hook.
+	 *
+	 * @return true if match() is defined, false otherwise.
+	 */
+	public boolean hasMatchCallback() {
+		return callables
+			.orElseGet(List::of)
+			.stream()
+			.anyMatch(c -> c.name().equals(Constants.MATCH_CB_NAME));
+	}
+
+	/**
+	 * Calls the user match() hook for an editor, without calling its tabs hooks.
+	 *
+	 * @param msg the edited message.
+	 * @param req the initiating request for responses, null for requests.
+	 * @param service the message's HttpService.
+	 * @return whether match() accepts the message, empty when the call failed.
+	 */
+	public Optional<Boolean> callMatchEditor(
+		HttpMessage msg,
+		HttpRequest req,
+		HttpService service
+	) {
+		return safeJepInvoke(
+			Constants.MATCH_EDITOR_CB_NAME,
+			new Object[] { msg, req, service },
+			Map.of(),
+			Boolean.class
+		);
+	}
+
+	/**
+	 * Removes the body of a message so it can be passed to Python without copying the body.
+	 * Burp edits its own raw head, so the start line and headers are kept byte for byte,
+	 * and Content-Length is restored so it still reflects the original body.
+	 *
+	 * @param msg the message to strip.
+	 * @return the message without its body.
+	 */
+	private static HttpMessage stripBody(HttpMessage msg) {
+		final String contentLength = msg.headerValue("Content-Length");
+		if (msg instanceof HttpRequest req) {
+			final HttpRequest stripped = req.withBody("");
+			return contentLength != null
+				? stripped.withUpdatedHeader("Content-Length", contentLength)
+				: stripped;
+		}
+
+		final HttpResponse stripped = ((HttpResponse) msg).withBody("");
+		return contentLength != null
+			? stripped.withUpdatedHeader("Content-Length", contentLength)
+			: stripped;
+	}
+
+	/**
+	 * Writes a body to a file chunk by chunk, so it is never copied whole on the heap.
+	 *
+	 * @param body the body to write.
+	 * @param file the file to write it to.
+	 * @throws IOException if the file can't be written.
+	 */
+	private static void writeBody(ByteArray body, Path file)
+		throws IOException {
+		try (OutputStream out = Files.newOutputStream(file)) {
+			final int length = body.length();
+			for (
+				int offset = 0;
+				offset < length;
+				offset += Constants.LARGE_BODY_CHUNK_SIZE
+			) {
+				final int end = Math.min(
+					length,
+					offset + Constants.LARGE_BODY_CHUNK_SIZE
+				);
+				out.write(body.subArray(offset, end).getBytes());
+			}
+		}
+	}
+
+	/**
+	 * Calls the corresponding Python callback for a message whose body exceeds the large body threshold.
+	 *
+	 * <p>The hook is skipped unless it opted in with @large_body,
+	 * in which case the body is spilled to a temporary file that Python maps read-only,
+	 * instead of being copied through the interpreter.
+	 *
+	 * @param <T> the type of the message.
+	 * @param msg the message to call the callback for.
+	 * @param service the message's HttpService.
+	 * @return the result of the callback.
+	 */
+	@SuppressWarnings({ "unchecked" })
+	private <T extends HttpMessage> Optional<T> callLargeBodyIntercepterCallback(
+		T msg,
+		HttpService service
+	) {
+		final String cbName = getMessageCbName(msg);
+		final ByteArray body = msg.body();
+
+		// The user hook is the framework callback without the leading underscore.
+		if (!acceptsLargeBody(cbName.substring(1))) {
+			ScalpelLogger.info(
+				"Skipping " +
+				cbName +
+				" for a " +
+				body.length() +
+				" bytes body: decorate the hook with @large_body or raise the large body threshold in the Scalpel tab"
+			);
+			return Optional.empty();
+		}
+
+		final Path bodyFile;
+		try {
+			bodyFile =
+				Files.createTempFile(Constants.LARGE_BODY_FILE_PREFIX, ".bin");
+			writeBody(body, bodyFile);
+			ScalpelLogger.info(
+				"Spilled a " +
+				body.length() +
+				" bytes body to " +
+				bodyFile +
+				" for " +
+				cbName
+			);
+		} catch (IOException e) {
+			ScalpelLogger.logStackTrace("Failed to spill large body to disk", e);
+			return Optional.empty();
+		}
+
+		final Map<String, Object> kwargs = new HashMap<>();
+		kwargs.put("body_file", bodyFile.toString());
+
+		// The stripped response loses its initiating request, so pass it explicitly.
+		if (msg instanceof HttpResponseReceived received) {
+			Optional
+				.ofNullable(received.initiatingRequest())
+				.ifPresent(req -> kwargs.put("request", req));
+		}
+
+		try {
+			return safeJepInvoke(
+				cbName,
+				new Object[] { stripBody(msg), service },
+				kwargs,
+				(Class<T>) msg.getClass()
+			);
+		} finally {
+			try {
+				Files.deleteIfExists(bodyFile);
+			} catch (IOException e) {
+				// Windows refuses to delete a file that is still mapped.
+				bodyFile.toFile().deleteOnExit();
+			}
+		}
+	}
+
 	/**
 	 * Returns the name of the corresponding Python callback for the given tab.
 	 *
@@ -1050,6 +1539,57 @@ public class ScalpelExecutor {
 			.flatMap(bytes -> Optional.of(ByteArray.byteArray(bytes)));
 	}
 
+	/**
+	 * Calls the "in" callbacks of several tabs for a message in a single Python call,
+	 * so the message is only converted once.
+	 *
+	 * @param msg the message to render.
+	 * @param req the initiating request for responses, null for requests.
+	 * @param service the message's HttpService.
+	 * @param tabNames the names of the tabs to render.
+	 * @return the content of each rendered tab, empty when the tab should be disabled, or an empty Optional when the call failed.
+	 * Tabs whose hook raised an exception are left out.
+	 */
+	@SuppressWarnings({ "unchecked" })
+	public Optional<Map<String, Optional<ByteArray>>> callEditorCallbacksIn(
+		HttpMessage msg,
+		HttpRequest req,
+		HttpService service,
+		List<String> tabNames
+	) {
+		final boolean isRequest = msg instanceof HttpRequest;
+		final Object[] params = isRequest
+			? new Object[] { msg, service }
+			: new Object[] { msg, req, service };
+
+		// Python receives the callback suffixes, like callEditorCallback does.
+		final Map<String, String> suffixToTab = new HashMap<>();
+		tabNames.forEach(tab ->
+			suffixToTab.put(tab.isEmpty() ? tab : "_" + tab, tab)
+		);
+
+		return safeJepInvoke(
+			getEditorCallbackName(isRequest, true) + Constants.ALL_TABS_SUFFIX,
+			params,
+			Map.of("callback_suffixes", List.copyOf(suffixToTab.keySet())),
+			Map.class
+		)
+			.map(results -> {
+				final Map<String, Optional<ByteArray>> contents = new HashMap<>();
+				suffixToTab.forEach((suffix, tab) -> {
+					if (results.containsKey(suffix)) {
+						contents.put(
+							tab,
+							Optional
+								.ofNullable((byte[]) results.get(suffix))
+								.map(ByteArray::byteArray)
+						);
+					}
+				});
+				return contents;
+			});
+	}
+
 	/**
 	 * Calls the corresponding Python callback for the given tab.
 	 *
@@ -1160,23 +1700,34 @@ public class ScalpelExecutor {
 		HashMap<String, String> annotations
 	) {}
 
+	@SuppressWarnings({ "unchecked" })
+	private static List<CallableData> toCallableData(
+		List<HashMap<String, Object>> rawCallables
+	) {
+		return rawCallables
+			.stream()
+			.map(c ->
+				new CallableData(
+					(String) c.get("name"),
+					(HashMap<String, String>) c.get("annotations")
+				)
+			)
+			.toList();
+	}
+
 	@SuppressWarnings({ "unchecked" })
 	public List<CallableData> getCallables() throws RuntimeException {
-		// TODO: Memoize this
+		// Use the hooks memoized when the interpreter was initialized.
+		final Optional<List<CallableData>> memoized = callables;
+		if (memoized.isPresent()) {
+			return memoized.get();
+		}
+
 		// Jep doesn't offer any way to list functions, so we have to implement it Python side.
 		// Python returns ~ [{"name": <function name>, "annotations": <func.__annotations__>},...]
 		return this.safeJepInvoke(Constants.GET_CB_NAME, List.class)
 			.map(l -> (List<HashMap<String, Object>>) l)
-			.map(List::stream)
-			.map(s ->
-				s.map(c ->
-					new CallableData(
-						(String) c.get("name"),
-						(HashMap<String, String>) c.get("annotations")
-					)
-				)
-			)
-			.map(Stream::toList)
+			.map(ScalpelExecutor::toCallableData)
 			.orElseThrow(() ->
 				new RuntimeException(Constants.GET_CB_NAME + " was not found.")
 			);
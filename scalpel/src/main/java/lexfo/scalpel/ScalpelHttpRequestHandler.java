@@ -48,15 +48,20 @@ public class ScalpelHttpRequestHandler implements HttpHandler {
 	public RequestToBeSentAction handleHttpRequestToBeSent(
 		HttpRequestToBeSent httpRequestToBeSent
 	) {
-		// Call the request() Python callback
-		final Optional<HttpRequest> newReq = executor.callIntercepterCallback(
-			httpRequestToBeSent,
-			httpRequestToBeSent.httpService()
-		);
+		return Tracer.span(
+			"ScalpelHttpRequestHandler.handleHttpRequestToBeSent",
+			() -> {
+				// Call the request() Python callback
+				final Optional<HttpRequest> newReq = executor.callIntercepterCallback(
+					httpRequestToBeSent,
+					httpRequestToBeSent.httpService()
+				);
 
-		// Return the modified request when requested, else return the original.
-		return RequestToBeSentAction.continueWith(
-			newReq.orElse(httpRequestToBeSent)
+				// Return the modified request when requested, else return the original.
+				return RequestToBeSentAction.continueWith(
+					newReq.orElse(httpRequestToBeSent)
+				);
+			}
 		);
 	}
 
@@ -69,21 +74,26 @@ public class ScalpelHttpRequestHandler implements HttpHandler {
 	public ResponseReceivedAction handleHttpResponseReceived(
 		HttpResponseReceived httpResponseReceived
 	) {
-		// Get the network info form the initiating request.
-		final HttpService service = Optional
-			.ofNullable(httpResponseReceived.initiatingRequest())
-			.map(HttpRequest::httpService)
-			.orElse(null);
+		return Tracer.span(
+			"ScalpelHttpRequestHandler.handleHttpResponseReceived",
+			() -> {
+				// Get the network info form the initiating request.
+				final HttpService service = Optional
+					.ofNullable(httpResponseReceived.initiatingRequest())
+					.map(HttpRequest::httpService)
+					.orElse(null);
 
-		// Call the request() Python callback
-		final var newRes = executor.callIntercepterCallback(
-			httpResponseReceived,
-			service
-		);
+				// Call the request() Python callback
+				final var newRes = executor.callIntercepterCallback(
+					httpResponseReceived,
+					service
+				);
 
-		// Return the modified request when requested, else return the original.
-		return ResponseReceivedAction.continueWith(
-			newRes.orElse(httpResponseReceived)
+				// Return the modified request when requested, else return the original.
+				return ResponseReceivedAction.continueWith(
+					newRes.orElse(httpResponseReceived)
+				);
+			}
 		);
 	}
 }
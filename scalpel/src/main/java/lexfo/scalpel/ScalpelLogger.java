@@ -3,6 +3,8 @@ package lexfo.scalpel;
 import burp.api.montoya.MontoyaApi;
 import burp.api.montoya.logging.Logging;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 /**
@@ -46,9 +48,51 @@ public class ScalpelLogger {
 
 	/**
 	 * Configured log level
-	 * TODO: Add to configuration.
 	 */
-	private static Level loggerLevel = Level.DEBUG;
+	private static volatile Level loggerLevel = Level.DEBUG;
+
+	/**
+	 * Callbacks notified when the log level changes.
+	 */
+	private static final List<Consumer<Level>> levelListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Get the configured log level.
+	 *
+	 * @return The log level.
+	 */
+	public static Level getLevel() {
+		return loggerLevel;
+	}
+
+	/**
+	 * Set the log level and notify the listeners.
+	 *
+	 * @param level The new log level.
+	 */
+	public static void setLevel(Level level) {
+		loggerLevel = level;
+		levelListeners.forEach(listener -> listener.accept(level));
+	}
+
+	/**
+	 * Register a callback notified when the log level changes.
+	 * (e.g. to mirror the level in Python and avoid logging calls that would be dropped)
+	 *
+	 * @param listener The callback receiving the new level.
+	 */
+	public static void addLevelListener(Consumer<Level> listener) {
+		levelListeners.add(listener);
+	}
+
+	/**
+	 * Unregister a callback added with {@link #addLevelListener(Consumer)}.
+	 *
+	 * @param listener The callback to remove.
+	 */
+	public static void removeLevelListener(Consumer<Level> listener) {
+		levelListeners.remove(listener);
+	}
 
 	/**
 	 * Logs the specified message to the Burp Suite output and standard output at the TRACE level.
@@ -0,0 +1,354 @@
+package lexfo.scalpel;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in span tracer, exporting the Java and Python stages of each task to a Chrome trace file.
+ *
+ * <p>Each task gets a {@link Trace} with its own ID, started by the Burp thread that submitted it.
+ * Java spans are recorded with {@link #span(String, Supplier)},
+ * Python spans are reported through the Trace passed to the framework. (see pyscalpel/tracing.py)
+ *
+ * <p>Spans are written under ~/.scalpel/traces in the Chrome "JSON Array" format,
+ * which can be opened with chrome://tracing or https://ui.perfetto.dev.
+ * The closing bracket is optional in this format, so the file stays readable if Burp is killed.
+ */
+public class Tracer {
+
+	/**
+		The spans of a single task, on both the Java and Python side.
+	*/
+	public static final class Trace {
+
+		private final long id;
+
+		private Trace(long id) {
+			this.id = id;
+		}
+
+		/**
+			Returns the ID shared by the spans of this trace.
+
+			@return The trace ID.
+		*/
+		public long id() {
+			return id;
+		}
+
+		/**
+			Returns the current time on the trace clock, so the Python spans use the same clock as the Java ones.
+
+			@return Microseconds since the Unix epoch.
+		*/
+		public long now() {
+			return Tracer.nowMicros();
+		}
+
+		/**
+			Records a finished span on the current thread, called from Python.
+
+			@param name The span name.
+			@param category The span category. (e.g. java, python)
+			@param startMicros The span start, from {@link #now()}.
+			@param endMicros The span end.
+		*/
+		public void span(
+			String name,
+			String category,
+			long startMicros,
+			long endMicros
+		) {
+			Tracer.record(this, name, category, startMicros, endMicros);
+		}
+	}
+
+	/** Directory the trace files are written to. */
+	public static final Path TRACES_DIR = RessourcesUnpacker.DATA_DIR_PATH.resolve(
+		"traces"
+	);
+
+	/** Interval between the writes of the recorded spans. */
+	private static final long FLUSH_INTERVAL_MS = 1000;
+
+	/** Wall clock origin, so Java and Python timestamps can be compared. */
+	private static final long EPOCH_MICROS_ORIGIN = epochMicros(Instant.now());
+	private static final long NANO_ORIGIN = System.nanoTime();
+
+	private static final AtomicLong traceIds = new AtomicLong();
+
+	/** Trace of the task submitted by the current thread. */
+	private static final ThreadLocal<Trace> current = new ThreadLocal<>();
+
+	/** Recorded events, not written yet. */
+	private static final Queue<String> pending = new ConcurrentLinkedQueue<>();
+
+	/** Threads whose name was already written. */
+	private static final Set<Long> namedThreads = ConcurrentHashMap.newKeySet();
+
+	private static volatile boolean enabled = false;
+	private static BufferedWriter writer = null;
+	private static ScheduledExecutorService flusher = null;
+	private static Path file = null;
+
+	private static long epochMicros(Instant instant) {
+		return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1000;
+	}
+
+	/**
+		Returns the current time on the trace clock.
+
+		@return Microseconds since the Unix epoch.
+	*/
+	public static long nowMicros() {
+		return fromNanoTime(System.nanoTime());
+	}
+
+	/**
+		Converts a {@link System#nanoTime()} timestamp to the trace clock.
+
+		@param nanoTime The timestamp.
+		@return Microseconds since the Unix epoch.
+	*/
+	public static long fromNanoTime(long nanoTime) {
+		return EPOCH_MICROS_ORIGIN + (nanoTime - NANO_ORIGIN) / 1000;
+	}
+
+	/**
+		Whether spans are being recorded.
+
+		@return True when tracing is enabled.
+	*/
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+		Starts recording to a new trace file.
+
+		@return The trace file.
+	*/
+	public static synchronized Path start() throws IOException {
+		if (enabled) {
+			return file;
+		}
+
+		Files.createDirectories(TRACES_DIR);
+		file =
+			TRACES_DIR.resolve(
+				"scalpel-" +
+				LocalDateTime
+					.now()
+					.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) +
+				".json"
+			);
+		writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+		writer.write("[\n");
+
+		namedThreads.clear();
+		flusher =
+			Executors.newSingleThreadScheduledExecutor(r -> {
+				final Thread thread = new Thread(r, "ScalpelTraceWriter");
+				thread.setDaemon(true);
+				return thread;
+			});
+		flusher.scheduleWithFixedDelay(
+			Tracer::flush,
+			FLUSH_INTERVAL_MS,
+			FLUSH_INTERVAL_MS,
+			TimeUnit.MILLISECONDS
+		);
+
+		enabled = true;
+		ScalpelLogger.info("Recording traces to " + file);
+		return file;
+	}
+
+	/**
+		Stops recording and closes the trace file.
+	*/
+	public static synchronized void stop() {
+		if (!enabled) {
+			return;
+		}
+		enabled = false;
+
+		flusher.shutdown();
+		flush();
+		try {
+			writer.close();
+		} catch (IOException e) {
+			ScalpelLogger.logStackTrace("Failed to close the trace file", e);
+		}
+		writer = null;
+		flusher = null;
+		ScalpelLogger.info("Trace written to " + file);
+	}
+
+	/**
+		Starts a trace for a task submitted by the current thread,
+		or reuses the one started by an enclosing stage. (e.g. the HTTP handler)
+
+		@return The trace, empty when tracing is disabled.
+	*/
+	public static Optional<Trace> currentOrNew() {
+		if (!enabled) {
+			return Optional.empty();
+		}
+		final Trace trace = current.get();
+		return Optional.of(
+			trace != null ? trace : new Trace(traceIds.incrementAndGet())
+		);
+	}
+
+	/**
+		Runs a stage of a new or enclosing trace as a span on the current thread.
+		Tasks submitted by the stage belong to its trace.
+
+		@param name The span name.
+		@param stage The traced code.
+		@return The stage result.
+	*/
+	public static <T> T span(String name, Supplier<T> stage) {
+		if (!enabled) {
+			return stage.get();
+		}
+
+		final Trace enclosing = current.get();
+		final Trace trace = enclosing != null
+			? enclosing
+			: new Trace(traceIds.incrementAndGet());
+
+		current.set(trace);
+		final long start = nowMicros();
+		try {
+			return stage.get();
+		} finally {
+			record(trace, name, "java", start, nowMicros());
+			current.set(enclosing);
+		}
+	}
+
+	/**
+		Records a finished span on the current thread.
+
+		@param trace The trace the span belongs to.
+		@param name The span name.
+		@param category The span category.
+		@param startMicros The span start, on the trace clock.
+		@param endMicros The span end.
+	*/
+	static void record(
+		Trace trace,
+		String name,
+		String category,
+		long startMicros,
+		long endMicros
+	) {
+		record(
+			trace,
+			name,
+			category,
+			startMicros,
+			endMicros,
+			Thread.currentThread()
+		);
+	}
+
+	/**
+		Records a finished span on the given thread.
+
+		@param trace The trace the span belongs to.
+		@param name The span name.
+		@param category The span category.
+		@param startMicros The span start, on the trace clock.
+		@param endMicros The span end.
+		@param thread The thread the span is displayed on.
+	*/
+	static void record(
+		Trace trace,
+		String name,
+		String category,
+		long startMicros,
+		long endMicros,
+		Thread thread
+	) {
+		if (!enabled) {
+			return;
+		}
+
+		final long tid = thread.getId();
+
+		// Name the thread once, so the trace viewer shows Burp and Scalpel threads by name.
+		if (namedThreads.add(tid)) {
+			pending.add(
+				"{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" +
+				tid +
+				",\"args\":{\"name\":" +
+				quote(thread.getName()) +
+				"}}"
+			);
+		}
+
+		pending.add(
+			"{\"name\":" +
+			quote(name) +
+			",\"cat\":" +
+			quote(category) +
+			",\"ph\":\"X\",\"ts\":" +
+			startMicros +
+			",\"dur\":" +
+			Math.max(0, endMicros - startMicros) +
+			",\"pid\":1,\"tid\":" +
+			tid +
+			",\"args\":{\"trace_id\":" +
+			trace.id() +
+			"}}"
+		);
+	}
+
+	/**
+		Writes the recorded spans to the trace file.
+	*/
+	private static synchronized void flush() {
+		if (writer == null) {
+			return;
+		}
+
+		try {
+			String event;
+			while ((event = pending.poll()) != null) {
+				writer.write(event);
+				writer.write(",\n");
+			}
+			writer.flush();
+		} catch (IOException e) {
+			ScalpelLogger.logStackTrace("Failed to write the trace file", e);
+		}
+	}
+
+	private static String quote(String str) {
+		return (
+			"\"" +
+			new String(JsonStringEncoder.getInstance().quoteAsString(str)) +
+			"\""
+		);
+	}
+}
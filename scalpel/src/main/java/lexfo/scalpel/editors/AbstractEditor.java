@@ -9,10 +9,12 @@ import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.http.message.responses.HttpResponse;
 import burp.api.montoya.ui.Selection;
 import burp.api.montoya.ui.editor.extension.EditorCreationContext;
+import com.google.common.hash.Hashing;
 import java.awt.*;
 import java.util.Optional;
 import java.util.UUID;
 import javax.swing.SwingUtilities;
+import lexfo.scalpel.EditorRenderCache;
 import lexfo.scalpel.EditorType;
 import lexfo.scalpel.ScalpelEditorTabbedPane;
 import lexfo.scalpel.ScalpelExecutor;
@@ -32,7 +34,7 @@ public abstract class AbstractEditor implements IMessageEditor {
 	/**
 		The HTTP request or response being edited.
 	*/
-	private HttpRequestResponse _requestResponse;
+	private volatile HttpRequestResponse _requestResponse;
 
 	/**
 		The Montoya API object.
@@ -55,7 +57,7 @@ public abstract class AbstractEditor implements IMessageEditor {
 	private final String id;
 
 	/**
-		The editor provider that instantiated this editor. (unused)
+		The editor provider that instantiated this editor.
 	*/
 	private final ScalpelEditorTabbedPane provider;
 
@@ -64,6 +66,26 @@ public abstract class AbstractEditor implements IMessageEditor {
 	*/
 	private final ScalpelExecutor executor;
 
+	/**
+		Identifies an outbound conversion: the source message, the script that converted it and the editor's content.
+	*/
+	private record OutboundKey(
+		HttpRequestResponse source,
+		long generation,
+		Object content
+	) {}
+
+	/**
+		The last outbound conversion and its result.
+	*/
+	private record OutboundMemo(OutboundKey key, HttpMessage result) {}
+
+	/**
+		The last outbound message, returned again while the content and the source message are unchanged.
+		(Burp may ask for the message several times for the same send)
+	*/
+	private volatile OutboundMemo outboundMemo = null;
+
 	/**
 		Constructs a new Scalpel editor.
 		
@@ -142,6 +164,16 @@ public abstract class AbstractEditor implements IMessageEditor {
 	@Override
 	public abstract boolean isModified();
 
+	/**
+	 * Returns a key identifying the editor's content, equal keys meaning the content didn't change.
+	 * The default implementation hashes the content, editors tracking their edits should override it.
+	 *
+	 * @return The content key.
+	 */
+	protected Object contentKey() {
+		return Hashing.murmur3_128().hashBytes(getEditorContent().getBytes());
+	}
+
 	/**
 		Returns the editor type (REQUEST or RESPONSE).
 
@@ -198,6 +230,17 @@ public abstract class AbstractEditor implements IMessageEditor {
 				return null;
 			}
 
+			// Return the previous result when neither the message, the script nor the content changed.
+			final OutboundKey key = new OutboundKey(
+				_requestResponse,
+				executor.getInterpreterGeneration(),
+				contentKey()
+			);
+			final OutboundMemo memo = outboundMemo;
+			if (memo != null && memo.key().equals(key)) {
+				return memo.result();
+			}
+
 			final Optional<HttpMessage> result;
 
 			// Call Python "outbound" message editor callback with editor's contents.
@@ -225,12 +268,10 @@ public abstract class AbstractEditor implements IMessageEditor {
 			}
 
 			// Nothing was returned, return the original msg untouched.
-			if (result.isEmpty()) {
-				return msg;
-			}
-
-			// Return the Python-processed message.
-			return result.get();
+			// Else, return the Python-processed message.
+			final HttpMessage outbound = result.orElse(msg);
+			outboundMemo = new OutboundMemo(key, outbound);
+			return outbound;
 		} catch (Exception e) {
 			ScalpelLogger.logStackTrace(e);
 		}
@@ -297,9 +338,19 @@ public abstract class AbstractEditor implements IMessageEditor {
 	 * @return An HttpService if found, else null
 	 */
 	public final HttpService getHttpService() {
-		final HttpRequestResponse reqRes = this._requestResponse;
+		return getHttpService(this._requestResponse);
+	}
 
-		// Ensure editor is initialized
+	/**
+	 * Get the network informations associated with a HttpRequestResponse
+	 *
+	 * Gets the HttpService from requestResponse and falls back to request if it is null
+	 *
+	 * @param reqRes The HttpRequestResponse to get the service from.
+	 * @return An HttpService if found, else null
+	 */
+	public static HttpService getHttpService(HttpRequestResponse reqRes) {
+		// Ensure requestResponse exists
 		if (reqRes == null) return null;
 
 		// Check if networking infos are available in the requestRespone
@@ -316,28 +367,76 @@ public abstract class AbstractEditor implements IMessageEditor {
 		return null;
 	}
 
+	/**
+		Calls the Python "in" hook for the inputted HTTP message.
+		Results are served from the EditorRenderCache when the same message was already rendered by this tab.
+
+		@param reqRes The HttpRequestResponse to render.
+		@return The bytes to display, empty when the tab should be disabled.
+	*/
 	public final Optional<ByteArray> executeCallback(
 		HttpRequestResponse reqRes
 	) throws Exception {
-		if (reqRes == null) {
+		final Optional<EditorRenderCache.Key> key = renderKey(reqRes);
+		if (key.isEmpty()) {
 			return Optional.empty();
 		}
 
-		if (type == EditorType.REQUEST && reqRes.request() != null) {
-			return executor.callEditorCallbackInRequest(
-				reqRes.request(),
-				getHttpService(),
-				caption()
-			);
-		} else if (type == EditorType.RESPONSE && reqRes.response() != null) {
-			return executor.callEditorCallbackInResponse(
-				reqRes.response(),
-				reqRes.request(),
-				getHttpService(),
-				caption()
+		final HttpService service = getHttpService(reqRes);
+
+		if (type == EditorType.REQUEST) {
+			return EditorRenderCache.get(
+				key.get(),
+				() ->
+					executor.callEditorCallbackInRequest(
+						reqRes.request(),
+						service,
+						caption()
+					)
 			);
 		}
-		return Optional.empty();
+
+		return EditorRenderCache.get(
+			key.get(),
+			() ->
+				executor.callEditorCallbackInResponse(
+					reqRes.response(),
+					reqRes.request(),
+					service,
+					caption()
+				)
+		);
+	}
+
+	/**
+		Returns the key identifying this tab's render of the inputted HTTP message in the EditorRenderCache.
+
+		@param reqRes The HttpRequestResponse to render.
+		@return The render key, empty when there is no message to render.
+	*/
+	public final Optional<EditorRenderCache.Key> renderKey(
+		HttpRequestResponse reqRes
+	) {
+		if (reqRes == null) {
+			return Optional.empty();
+		}
+
+		final HttpMessage msg = type == EditorType.REQUEST
+			? reqRes.request()
+			: reqRes.response();
+
+		if (msg == null) {
+			return Optional.empty();
+		}
+
+		return Optional.of(
+			EditorRenderCache.key(
+				type,
+				caption(),
+				provider.contentHash(reqRes),
+				executor.getInterpreterGeneration()
+			)
+		);
 	}
 
 	/**
@@ -357,15 +456,47 @@ public abstract class AbstractEditor implements IMessageEditor {
 			return false;
 		}
 
-		// Update the editor's content with the returned bytes.
+		// Update the editor's content with the returned bytes,
+		// unless another message was set while the hook was running.
 		result.ifPresent(bytes ->
-			SwingUtilities.invokeLater(() -> setEditorContent(bytes))
+			SwingUtilities.invokeLater(() -> {
+				if (this._requestResponse == reqRes) {
+					setEditorContent(bytes);
+				}
+			})
 		);
 
 		// Display the tab when bytes are returned.
 		return result.isPresent();
 	}
 
+	/**
+		Releases the message and the displayed content, to free memory while the editor is hidden
+		or to drop the edits of a replaced message.
+		The editor displays its content again once a message is set.
+	*/
+	@Override
+	public final void trim() {
+		this._requestResponse = null;
+		this.outboundMemo = null;
+
+		// Clear right away on the Swing thread, so the edits are dropped before the next event.
+		if (SwingUtilities.isEventDispatchThread()) {
+			clearEditorContent();
+		} else {
+			SwingUtilities.invokeLater(this::clearEditorContent);
+		}
+	}
+
+	/**
+	 * Clears the editor's content
+	 *
+	 * Note: This should reset isModified()
+	 */
+	protected void clearEditorContent() {
+		setEditorContent(ByteArray.byteArray(new byte[0]));
+	}
+
 	/**
 		Determines whether the editor should be enabled for the provided HttpRequestResponse.
 		Also initializes the editor with Python callbacks output of the inputted HTTP message.
@@ -0,0 +1,301 @@
+package lexfo.scalpel.editors;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.exbin.auxiliary.paged_data.BinaryData;
+import org.exbin.auxiliary.paged_data.ByteArrayData;
+import org.exbin.auxiliary.paged_data.EditableBinaryData;
+import org.exbin.auxiliary.paged_data.PagedData;
+
+/**
+	Editable BinEd data backed by the message bytes until the first edit.
+	<p>
+	Reads are served straight from the wrapped array without copying it.
+	The first mutation copies the content into a {@link PagedData},
+	which splits it in fixed-size pages so further inserts and removals
+	don't reallocate the whole buffer.
+	<p>
+	The wrapped array must not be modified by the caller.
+*/
+public class CopyOnWriteBinaryData implements EditableBinaryData {
+
+	/** The original (read-only) bytes. */
+	private final byte[] bytes;
+
+	/** Zero-copy view over {@link #bytes}. */
+	private final ByteArrayData source;
+
+	/** The paged copy, created on the first edit. */
+	private PagedData pages = null;
+
+	/** Incremented on every mutation, read from Burp's threads. */
+	private volatile long revision = 0;
+
+	/**
+		Wraps the given bytes without copying them.
+
+		@param bytes The content, must not be modified afterwards.
+	*/
+	public CopyOnWriteBinaryData(byte[] bytes) {
+		this.bytes = bytes;
+		this.source = new ByteArrayData(bytes);
+	}
+
+	/**
+		Whether the content was copied because of an edit.
+
+		@return True if the data has been written to.
+	*/
+	public boolean isCopied() {
+		return pages != null;
+	}
+
+	/**
+		Returns the number of mutations applied to the data.
+		This is cheap to poll, unlike comparing the content.
+
+		@return The revision, 0 when the data was never edited.
+	*/
+	public long getRevision() {
+		return revision;
+	}
+
+	/**
+		Returns the content as a byte array.
+		The original array is returned as is when the data was never edited.
+
+		@return The content bytes.
+	*/
+	public byte[] toByteArray() {
+		if (pages == null) {
+			return bytes;
+		}
+
+		final long size = pages.getDataSize();
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalStateException(
+				"Edited content is too large to fit in an array: " + size
+			);
+		}
+
+		final byte[] result = new byte[(int) size];
+		pages.copyToArray(0, result, 0, result.length);
+		return result;
+	}
+
+	private BinaryData current() {
+		return pages != null ? pages : source;
+	}
+
+	/**
+		Returns the data to write to, copying it first if needed.
+		Only called by mutations, so it also bumps the revision.
+	*/
+	private EditableBinaryData editable() {
+		revision++;
+		if (pages == null) {
+			final PagedData copy = new PagedData();
+			copy.insert(0, source);
+			pages = copy;
+		}
+		return pages;
+	}
+
+	// BinaryData
+
+	@Override
+	public boolean isEmpty() {
+		return current().isEmpty();
+	}
+
+	@Override
+	public long getDataSize() {
+		return current().getDataSize();
+	}
+
+	@Override
+	public byte getByte(long position) {
+		return current().getByte(position);
+	}
+
+	@Override
+	public EditableBinaryData copy() {
+		final PagedData copy = new PagedData();
+		copy.insert(0, current());
+		return copy;
+	}
+
+	@Override
+	public EditableBinaryData copy(long startFrom, long length) {
+		final PagedData copy = new PagedData();
+		copy.insert(0, current(), startFrom, length);
+		return copy;
+	}
+
+	@Override
+	public void copyToArray(
+		long startFrom,
+		byte[] target,
+		int offset,
+		int length
+	) {
+		current().copyToArray(startFrom, target, offset, length);
+	}
+
+	@Override
+	public void saveToStream(OutputStream outputStream) throws IOException {
+		current().saveToStream(outputStream);
+	}
+
+	@Override
+	public InputStream getDataInputStream() {
+		return current().getDataInputStream();
+	}
+
+	@Override
+	public void dispose() {
+		if (pages != null) {
+			pages.dispose();
+			pages = null;
+		}
+	}
+
+	// EditableBinaryData, every mutation goes through the paged copy.
+
+	@Override
+	public void setDataSize(long size) {
+		editable().setDataSize(size);
+	}
+
+	@Override
+	public void setByte(long position, byte value) {
+		editable().setByte(position, value);
+	}
+
+	@Override
+	public void insertUninitialized(long startFrom, long length) {
+		editable().insertUninitialized(startFrom, length);
+	}
+
+	@Override
+	public void insert(long startFrom, long length) {
+		editable().insert(startFrom, length);
+	}
+
+	@Override
+	public void insert(long startFrom, byte[] insertedData) {
+		editable().insert(startFrom, insertedData);
+	}
+
+	@Override
+	public void insert(
+		long startFrom,
+		byte[] insertedData,
+		int insertedDataOffset,
+		int insertedDataLength
+	) {
+		editable()
+			.insert(
+				startFrom,
+				insertedData,
+				insertedDataOffset,
+				insertedDataLength
+			);
+	}
+
+	@Override
+	public void insert(long startFrom, BinaryData insertedData) {
+		editable().insert(startFrom, insertedData);
+	}
+
+	@Override
+	public void insert(
+		long startFrom,
+		BinaryData insertedData,
+		long insertedDataOffset,
+		long insertedDataLength
+	) {
+		editable()
+			.insert(
+				startFrom,
+				insertedData,
+				insertedDataOffset,
+				insertedDataLength
+			);
+	}
+
+	@Override
+	public long insert(
+		long startFrom,
+		InputStream inputStream,
+		long maximumDataSize
+	) throws IOException {
+		return editable().insert(startFrom, inputStream, maximumDataSize);
+	}
+
+	@Override
+	public void replace(long targetPosition, BinaryData replacingData) {
+		editable().replace(targetPosition, replacingData);
+	}
+
+	@Override
+	public void replace(
+		long targetPosition,
+		BinaryData replacingData,
+		long startFrom,
+		long length
+	) {
+		editable().replace(targetPosition, replacingData, startFrom, length);
+	}
+
+	@Override
+	public void replace(long targetPosition, byte[] replacingData) {
+		editable().replace(targetPosition, replacingData);
+	}
+
+	@Override
+	public void replace(
+		long targetPosition,
+		byte[] replacingData,
+		int replacingDataOffset,
+		int length
+	) {
+		editable()
+			.replace(targetPosition, replacingData, replacingDataOffset, length);
+	}
+
+	@Override
+	public void fillData(long startFrom, long length) {
+		editable().fillData(startFrom, length);
+	}
+
+	@Override
+	public void fillData(long startFrom, long length, byte fill) {
+		editable().fillData(startFrom, length, fill);
+	}
+
+	@Override
+	public void remove(long startFrom, long length) {
+		editable().remove(startFrom, length);
+	}
+
+	@Override
+	public void clear() {
+		// Nothing to copy when the whole content is discarded.
+		dispose();
+		pages = new PagedData();
+		revision++;
+	}
+
+	@Override
+	public void loadFromStream(InputStream inputStream) throws IOException {
+		clear();
+		pages.loadFromStream(inputStream);
+	}
+
+	@Override
+	public OutputStream getDataOutputStream() {
+		return editable().getDataOutputStream();
+	}
+}
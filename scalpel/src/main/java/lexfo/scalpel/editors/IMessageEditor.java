@@ -48,4 +48,6 @@ public interface IMessageEditor
 	Selection selectedData();
 
 	boolean isModified();
+
+	void trim();
 }
@@ -6,14 +6,10 @@ import burp.api.montoya.ui.Selection;
 import burp.api.montoya.ui.editor.extension.EditorCreationContext;
 import burp.api.montoya.ui.editor.extension.EditorMode;
 import java.awt.*;
-import java.io.IOException;
-import java.util.Optional;
 import lexfo.scalpel.EditorType;
 import lexfo.scalpel.ScalpelEditorTabbedPane;
 import lexfo.scalpel.ScalpelExecutor;
 import lexfo.scalpel.ScalpelLogger;
-import org.exbin.auxiliary.paged_data.BinaryData;
-import org.exbin.auxiliary.paged_data.ByteArrayEditableData;
 import org.exbin.bined.CodeType;
 import org.exbin.bined.EditMode;
 import org.exbin.bined.SelectionRange;
@@ -32,6 +28,17 @@ public class ScalpelGenericBinaryEditor extends AbstractEditor {
 
 	private ByteArray oldContent = null;
 
+	/**
+	 * The content currently displayed by the editor.
+	 * Reads are served from the message bytes, which are only copied (in pages) when the user edits them.
+	 */
+	private volatile CopyOnWriteBinaryData content = null;
+
+	/**
+	 * Identifies the displayed data and its number of edits.
+	 */
+	private record ContentKey(CopyOnWriteBinaryData data, long revision) {}
+
 	/**
 		Constructs a new Scalpel editor.
 		
@@ -84,53 +91,30 @@ public class ScalpelGenericBinaryEditor extends AbstractEditor {
 		}
 	}
 
-	/**
-	 * Convert from Burp format to BinEd format
-	 * @param binaryData Bytes as Burp format
-	 * @return Bytes as BinEd format
-	 */
-	private BinaryData byteArrayToBinaryData(ByteArray byteArray) {
-		final byte[] bytes = byteArray.getBytes();
-		final BinaryData result = new ByteArrayEditableData(bytes);
-		return result;
-	}
-
-	/**
-	 * Convert from BinEd format to Burp format
-	 * @param binaryData Bytes as BinEd format
-	 * @return Bytes as Burp format
-	 */
-	private ByteArray binaryDataToByteArray(BinaryData binaryData) {
-		// Load the data
-		final ByteArrayEditableData buffer = new ByteArrayEditableData();
-		try {
-			buffer.loadFromStream(binaryData.getDataInputStream());
-		} catch (IOException ex) {
-			throw new RuntimeException(
-				"Unexpected error happened while loading bytes from hex editor"
-			);
-		}
-
-		final byte[] bytes = buffer.getData();
-
-		// Convert bytes to Burp ByteArray
-		final ByteArray result = ByteArray.byteArray(bytes);
-		return result;
-	}
-
 	protected void setEditorContent(ByteArray bytes) {
-		// Convert from burp format to BinEd format
-		final var newContent = byteArrayToBinaryData(bytes);
+		// Wrap the message bytes without copying them again.
+		final var newContent = new CopyOnWriteBinaryData(bytes.getBytes());
 		editor.setContentData(newContent);
 
-		// Keep the old content for isModified()
+		// Release the pages of the previous content, if it was edited.
+		if (content != null) {
+			content.dispose();
+		}
+		content = newContent;
+
+		// Keep the old content to hand it back while it is unedited.
 		oldContent = bytes;
 	}
 
 	protected ByteArray getEditorContent() {
+		// Unedited content is returned as is, without any copy.
+		if (content == null || !content.isCopied()) {
+			return oldContent;
+		}
+
 		try {
 			// Convert BinEd format to Burp format
-			return binaryDataToByteArray(editor.getContentData());
+			return ByteArray.byteArray(content.toByteArray());
 		} catch (RuntimeException ex) {
 			// We have to catch and handle this here because otherwise Burp explodes
 			ScalpelLogger.error("Couldn't convert bytes:");
@@ -169,6 +153,17 @@ public class ScalpelGenericBinaryEditor extends AbstractEditor {
 		return burpSelection;
 	}
 
+	/**
+		Returns a key identifying the editor's content without reading it.
+
+		@return The content key.
+	*/
+	@Override
+	protected Object contentKey() {
+		final CopyOnWriteBinaryData data = content;
+		return new ContentKey(data, data != null ? data.getRevision() : 0);
+	}
+
 	/**
 		Returns whether the editor has been modified.
 		(called by Burp)
@@ -177,10 +172,7 @@ public class ScalpelGenericBinaryEditor extends AbstractEditor {
 	*/
 	@Override
 	public boolean isModified() {
-		// Check if current content is the same as the provided data.
-		return Optional
-			.ofNullable(this.getEditorContent())
-			.map(c -> !c.equals(oldContent))
-			.orElse(false);
+		// Edits are tracked by the data itself, so this doesn't have to compare the whole content.
+		return content != null && content.getRevision() != 0;
 	}
 }
@@ -6,6 +6,7 @@ It provides many utilities to manipulate HTTP requests, responses and converting
 
 from pyscalpel.http import Request, Response, Flow
 from pyscalpel.edit import editor
+from pyscalpel.large_body import large_body
 from pyscalpel.burp_utils import ctx as _context
 from pyscalpel.java.scalpel_types import Context
 from pyscalpel.logger import Logger, logger
@@ -17,6 +18,7 @@ from . import utils
 from . import burp_utils
 from . import venv
 from . import edit
+from . import tracing
 
 ctx: Context = _context
 """The Scalpel Python execution context
@@ -34,6 +36,7 @@ __all__ = [
     "burp_utils",
     "venv",
     "edit",
+    "tracing",
     "Request",
     "Response",
     "Flow",
@@ -41,6 +44,7 @@ __all__ = [
     "Context",
     "MatchEvent",
     "editor",
+    "large_body",
     "logger",
     "Logger",
 ]
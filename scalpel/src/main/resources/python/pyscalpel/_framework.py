@@ -1,4 +1,5 @@
 import traceback
+from copy import deepcopy
 from sys import _getframe
 import inspect
 from typing import Callable, TypeVar, cast, Any, TypedDict
@@ -20,26 +21,29 @@ class DebugLogger:
     or pyscalpel.logger cannot be imported.
     """
 
-    def all(self, msg: str):
-        print(msg)
+    def all(self, msg: str, *args):
+        print(msg % args if args else msg)
 
-    def trace(self, msg: str):
-        print(msg)
+    def trace(self, msg: str, *args):
+        print(msg % args if args else msg)
 
-    def debug(self, msg: str):
-        print(msg)
+    def debug(self, msg: str, *args):
+        print(msg % args if args else msg)
 
-    def info(self, msg: str):
-        print(msg)
+    def info(self, msg: str, *args):
+        print(msg % args if args else msg)
 
-    def warn(self, msg: str):
-        print(msg)
+    def warn(self, msg: str, *args):
+        print(msg % args if args else msg)
 
-    def fatal(self, msg: str):
-        print(msg)
+    def fatal(self, msg: str, *args):
+        print(msg % args if args else msg)
 
-    def error(self, msg: str):
-        print(msg, file=sys.stderr)
+    def error(self, msg: str, *args):
+        print(msg % args if args else msg, file=sys.stderr)
+
+    def set_level(self, level: int):
+        pass
 
 
 logger = DebugLogger()
@@ -164,6 +168,12 @@ try:
     from pyscalpel.java.burp.http_service import IHttpService
     from pyscalpel.http import Request, Response, Flow
     from pyscalpel.events import MatchEvent
+    from pyscalpel.large_body import map_body_file
+    from pyscalpel.internal.lru import LRUCache
+    from pyscalpel.java.scalpel_types.utils import PythonUtils
+    from pyscalpel.tracing import Trace, set_trace, span
+    from pyscalpel.profiler import profiler
+    from pyscalpel import memory
 
     # Declare convenient types for the callbacks
     CallbackReturn = TypeVar("CallbackReturn", Request, Response, bytes) | None
@@ -179,6 +189,9 @@ try:
         lambda _, __: True
     )
 
+    # The match callback may omit parameters, inspect it once instead of on every message.
+    match_params_len = len(inspect.signature(match_callback).parameters)
+
     class CallableData(TypedDict):
         name: str
         annotations: dict[str, Any]
@@ -193,14 +206,108 @@ try:
             for name, hook in callable_objs.items()
         ]
 
+    # Requests converted during the request phase, reused when their response is processed.
+    # Keyed by a Java-side hash of the Burp request that was sent, so the lookup doesn't require converting it.
+    # The cached request is shared by the response hooks and editors of its responses, it must not be modified.
+    # The cache is only filled by the request hook, without one it is never looked up.
+    REQUEST_CACHE_SIZE = 128
+    REQUEST_CACHE_MAX_BODY = 1024 * 1024
+    request_cache: LRUCache[str, Request] = LRUCache(REQUEST_CACHE_SIZE)
+    has_request_hook = "request" in callable_objs
+
+    def _is_cacheable(py_req: Request) -> bool:
+        # Don't keep large uploads alive.
+        return len(py_req.content or b"") <= REQUEST_CACHE_MAX_BODY
+
+    def _cache_request(req: IHttpRequest, py_req: Request) -> None:
+        """Keep a converted request so its response can reuse it.
+
+        Args:
+            req (IHttpRequest): The Burp request that was sent
+            py_req (Request): Its Python conversion, which must match the sent bytes and not be modified afterwards
+        """
+        request_cache.put(PythonUtils.requestKey(req), py_req)
+
+    def _converted_request(req: IHttpRequest | None) -> Request | IHttpRequest | None:
+        """Get the request converted during the request phase, or the Burp request when it wasn't.
+
+        Args:
+            req (IHttpRequest | None): The initiating Burp request
+
+        Returns:
+            Request | IHttpRequest | None: The cached Request if present, the Burp request otherwise
+        """
+        if req is None or not has_request_hook:
+            return req
+
+        cached = request_cache.get(PythonUtils.requestKey(req))
+        return req if cached is None else cached
+
+    def _set_log_level(level: int) -> None:
+        """Mirror a Java log level change, so disabled logging calls are skipped Python side.
+
+        Args:
+            level (int): The new ScalpelLogger.Level value
+        """
+        logger.set_level(level)
+
+    def _set_trace(trace: Trace | None) -> None:
+        """Set the Java trace of the running task, so its Python stages are recorded as spans.
+
+        Args:
+            trace (Trace | None): The task trace, None once the task is processed
+        """
+        set_trace(trace)
+
+    def _start_profiling(duration: float, output_dir: str) -> bool:
+        """Start profiling the hooks, discarding the previous profile.
+
+        Args:
+            duration (float): Time (in seconds) after which the hooks stop being profiled
+            output_dir (str): Directory the profile is written to
+
+        Returns:
+            bool: True, so the Java task resolves
+        """
+        profiler.start(duration, output_dir)
+        logger.info(f"Python: profiling the hooks for {duration:g}s")
+        return True
+
+    def _stop_profiling() -> str:
+        """Stop profiling the hooks, write the collapsed stacks and log the slowest functions.
+
+        Returns:
+            str: The written file, empty when no hook was called
+        """
+        path = profiler.stop()
+        if path is None:
+            logger.info("Python: no hook was called while profiling")
+            return ""
+
+        logger.info(
+            f"Python: hooks profile written to {path} (collapsed stacks, for flamegraph.pl or speedscope)\n"
+            + profiler.summary()
+        )
+        return path
+
+    def _memory_usage(top: int = 10) -> dict[str, Any]:
+        """Sample the Python memory usage, for the soak test.
+
+        Args:
+            top (int, optional): The number of allocation sites. Defaults to 10.
+
+        Returns:
+            dict[str, Any]: See `pyscalpel.memory.usage`
+        """
+        return memory.usage(top)
+
     def call_match_callback(*args) -> bool:
         """Calls the match callback with the correct parameters.
 
         Returns:
             bool: The match callback result
         """
-        params_len = len(inspect.signature(match_callback).parameters)
-        filtered_args = args[:params_len]
+        filtered_args = args[:match_params_len]
         return match_callback(*filtered_args)
 
     def fun_name(frame=1):
@@ -226,8 +333,11 @@ try:
         @wraps(callback)
         def _wrapped_cb(*args, **kwargs):
             try:
-                logger.trace(f"Python: _wrapped_cb() for {callback.__name__} called")
-                return callback(*args, **kwargs)
+                logger.trace("Python: _wrapped_cb() for %s called", callback.__name__)
+                suffix = kwargs.get("callback_suffix")
+                hook = callback.__name__ + (suffix if isinstance(suffix, str) else "")
+                with profiler.profile(hook):
+                    return callback(*args, **kwargs)
             except Exception as ex:  # pylint: disable=broad-except
                 logger.error(f"Python: {callback.__name__}() error:\n\t{ex}")
                 logger.error(traceback.format_exc())
@@ -246,7 +356,7 @@ try:
         Returns:
             Callable[..., CallbackReturn]: The wrapped callback
         """
-        logger.trace(f"Python: _try_if_present({callback.__name__}) called")
+        logger.trace("Python: _try_if_present(%s) called", callback.__name__)
 
         # Remove the leading underscore from the callback name
         name = callback.__name__.removeprefix("_")
@@ -256,18 +366,19 @@ try:
 
         # Ensure the user callback is present
         if user_cb is not None:
-            logger.trace(f"Python: {name}() is present")
+            logger.trace("Python: %s() is present", name)
 
             # Wrap the user callback in a try catch block and return it
             @_try_wrap
             @wraps(user_cb)
             def new_cb(*args, **kwargs) -> CallbackReturn:
-                return callback(*args, **kwargs, callback=user_cb)
+                with span(f"_framework.{callback.__name__}"):
+                    return callback(*args, **kwargs, callback=user_cb)
 
             # Return the wrapped callback
             return new_cb
 
-        logger.trace(f"Python: {name}() is not present")
+        logger.trace("Python: %s() is not present", name)
 
         # Ignore the callback.
         return lambda *_, **__: None
@@ -275,51 +386,142 @@ try:
     # TODO: HttpService param is useless in this request
     @_try_if_present
     def _request(
-        req: IHttpRequest, service: IHttpService, callback: CallbackType = ...
+        req: IHttpRequest,
+        service: IHttpService,
+        body_file: str | None = None,
+        callback: CallbackType = ...,
     ) -> IHttpRequest | None:
         """Wrapper for the request callback
 
         Args:
             req (IHttpRequest): The request object
+            body_file (str | None, optional): The file containing the body when it exceeds the large body threshold.
             callback (CallbackType, optional): The user callback.
 
         Returns:
             IHttpRequest | None: The modified request object or None for an unmodified request
         """
-        py_req = Request.from_burp(req, service)
+        with span("Request.from_burp"):
+            py_req = Request.from_burp(req, service)
+
+        if body_file is None:
+            return _process_request(req, py_req, callback, cache=True)
+
+        # The body was stripped by Scalpel, map it instead of copying it.
+        # The mapping is closed after the hook, so the request can't be cached.
+        with map_body_file(body_file) as body:
+            py_req.content = body  # type: ignore
+            return _process_request(req, py_req, callback, cache=False)
+
+    def _process_request(
+        req: IHttpRequest, py_req: Request, callback: CallbackType, cache: bool
+    ) -> IHttpRequest | None:
+        cache = cache and _is_cacheable(py_req)
 
         flow = Flow(py_req.scheme, py_req.host, py_req.port, py_req)
         if not call_match_callback(flow, "request"):
+            if cache:
+                _cache_request(req, py_req)
             return None
 
+        # The hook may modify py_req in place and still send the original request,
+        # so keep a snapshot of what is sent in that case.
+        snapshot = deepcopy(py_req) if cache else None
+
         # Call the user callback
-        processed_req = cast(Request | None, callback(py_req))
+        with span(callback.__name__, "hook"):
+            processed_req = cast(Request | None, callback(py_req))
+
+        if processed_req is None:
+            if snapshot is not None:
+                _cache_request(req, snapshot)
+            return None
 
         # Convert the request to a Burp request
-        return processed_req.to_burp() if processed_req is not None else None
+        with span("Request.to_burp"):
+            sent_req = processed_req.to_burp()
+        if cache and _is_cacheable(processed_req):
+            _cache_request(sent_req, processed_req)
+        return sent_req
 
     @_try_if_present
     def _response(
-        res: IHttpResponse, service: IHttpService, callback: CallbackType = ...
+        res: IHttpResponse,
+        service: IHttpService,
+        body_file: str | None = None,
+        request: IHttpRequest | None = None,
+        callback: CallbackType = ...,
     ) -> IHttpResponse | None:
         """Wrapper for the response callback
 
         Args:
             res (IHttpResponse): The response object
+            body_file (str | None, optional): The file containing the body when it exceeds the large body threshold.
+            request (IHttpRequest | None, optional): The initiating request when it can't be retrieved from the response.
             callback (CallbackType, optional): The user callback.
 
         Returns:
             IHttpResponse | None: The modified response object or None for an unmodified response
         """
-        py_res = Response.from_burp(res, service)
+        if request is None:
+            # Some responses can have a "initiatingRequest" field.
+            request = getattr(res, "initiatingRequest", lambda: None)()
+
+        with span("Response.from_burp"):
+            py_res = Response.from_burp(res, service, _converted_request(request))
+
+        if body_file is None:
+            return _process_response(py_res, callback)
 
+        # The body was stripped by Scalpel, map it instead of copying it.
+        with map_body_file(body_file) as body:
+            py_res.raw_content = body  # type: ignore
+            return _process_response(py_res, callback)
+
+    def _process_response(
+        py_res: Response, callback: CallbackType
+    ) -> IHttpResponse | None:
         flow = Flow(py_res.scheme, py_res.host, py_res.port, py_res.request, py_res)
         if not call_match_callback(flow, "response"):
             return None
 
-        result_res = cast(Response | None, callback(py_res))
+        with span(callback.__name__, "hook"):
+            result_res = cast(Response | None, callback(py_res))
+
+        if result_res is None:
+            return None
 
-        return result_res.to_burp() if result_res is not None else None
+        with span("Response.to_burp"):
+            return result_res.to_burp()
+
+    @_try_wrap
+    def _match_editor(
+        msg: IHttpRequest | IHttpResponse,
+        request: IHttpRequest | None,
+        service: IHttpService,
+    ) -> bool:
+        """Calls the match callback for an editor without calling its tabs hooks
+
+        Used in lazy mode to tell whether the Scalpel tab should be displayed.
+
+        Args:
+            msg (IHttpRequest | IHttpResponse): The edited request or response
+            request (IHttpRequest | None): The initiating request for responses, None for requests
+            service (IHttpService): The message's service
+
+        Returns:
+            bool: The match callback result
+        """
+        if request is None:
+            py_req = Request.from_burp(cast(IHttpRequest, msg), service)
+            flow = Flow(py_req.scheme, py_req.host, py_req.port, py_req)
+            return call_match_callback(flow, "req_edit_in")
+
+        py_res = Response.from_burp(
+            cast(IHttpResponse, msg), service=service, request=_converted_request(request)
+        )
+        flow = Flow(py_res.scheme, py_res.host, py_res.port, py_res.request, py_res)
+        return call_match_callback(flow, "res_edit_in")
 
     # TODO: update docstrings
     @_try_wrap
@@ -334,7 +536,7 @@ try:
         Returns:
             bytes | None: The bytes to display in the editor or None for a disabled editor
         """
-        logger.trace(f"Python: _req_edit_in -> {callback_suffix}")
+        logger.trace("Python: _req_edit_in -> %s", callback_suffix)
         callback = callable_objs.get("req_edit_in" + callback_suffix)
         if callback is None:
             return None
@@ -345,10 +547,117 @@ try:
         if not call_match_callback(flow, "req_edit_in"):
             return None
 
-        logger.trace(f"Python: calling {callback.__name__}")
+        logger.trace("Python: calling %s", callback.__name__)
         # Call the user callback and return the bytes to display in the editor
         return cast(bytes | None, callback(py_req))
 
+    def _message_state(msg: Request | Response | None) -> tuple[Any, ...]:
+        """Snapshot of a message's fields, to tell whether a hook modified it in place.
+
+        The headers and body are kept by reference: modifying them replaces these objects,
+        so comparing two states is cheap when nothing changed.
+        """
+        if msg is None:
+            return ()
+
+        if isinstance(msg, Request):
+            return (
+                msg.method,
+                msg.scheme,
+                msg.host,
+                msg.port,
+                msg.path,
+                msg.http_version,
+                msg.headers.fields,
+                msg.content,
+            )
+
+        return (
+            msg.status_code,
+            msg.reason,
+            msg.http_version,
+            msg.headers.fields,
+            msg.raw_content,
+            msg.scheme,
+            msg.host,
+            msg.port,
+            *_message_state(msg.request),
+        )
+
+    def _render_all_tabs(
+        msg: Request | Response,
+        convert: Callable[[], Request | Response],
+        prefix: str,
+        callback_suffixes: list[str],
+    ) -> dict[str, Any]:
+        """Calls the "in" hook of every tab with the same converted message.
+
+        Args:
+            msg (Request | Response): The converted message
+            convert (Callable[[], Request | Response]): Converts the message again, once a hook modified it
+            prefix (str): The hooks prefix (req_edit_in or res_edit_in)
+            callback_suffixes (list[str]): The tabs hooks suffixes
+
+        Returns:
+            dict[str, Any]: The Java bytes to display for each suffix, None for a disabled tab.
+                Tabs whose hook raised are left out, so their failure isn't taken for a disabled tab.
+        """
+        results: dict[str, Any] = dict.fromkeys(callback_suffixes)
+        callbacks = [
+            (suffix, callback)
+            for suffix in callback_suffixes
+            if (callback := callable_objs.get(prefix + suffix)) is not None
+        ]
+
+        # The hooks share the message, it is only converted again when a hook modified it
+        # so the next ones don't see the modifications.
+        state = _message_state(msg)
+        for index, (suffix, callback) in enumerate(callbacks):
+            try:
+                logger.trace("Python: calling %s", callback.__name__)
+                content = cast(bytes | None, callback(msg))
+            except Exception as ex:  # pylint: disable=broad-except
+                logger.error(f"Python: {callback.__name__}() error:\n\t{ex}")
+                logger.error(traceback.format_exc())
+                del results[suffix]
+                content = None
+
+            if index < len(callbacks) - 1 and _message_state(msg) != state:
+                msg = convert()
+                state = _message_state(msg)
+
+            if content is not None:
+                results[suffix] = PythonUtils.toJavaBytes(bytes(content))
+
+        return results
+
+    @_try_wrap
+    def _req_edit_in_all(
+        req: IHttpRequest, service: IHttpService, callback_suffixes: list[str] = ...
+    ) -> dict[str, Any]:
+        """Wrapper rendering every request editor tab with a single conversion
+
+        Args:
+            req (IHttpRequest): The request object
+            callback_suffixes (list[str]): The tabs hooks suffixes
+
+        Returns:
+            dict[str, Any]: The bytes to display for each suffix, None for a disabled tab
+        """
+        logger.trace("Python: _req_edit_in_all -> %s", callback_suffixes)
+        py_req = Request.from_burp(req, service)
+
+        flow = Flow(py_req.scheme, py_req.host, py_req.port, py_req)
+        if not call_match_callback(flow, "req_edit_in"):
+            return dict.fromkeys(callback_suffixes)
+
+        return _render_all_tabs(
+            py_req,
+            lambda: Request.from_burp(req, service),
+            "req_edit_in",
+            list(callback_suffixes),
+        )
+
     @_try_wrap
     def _req_edit_out(
         req: IHttpRequest,
@@ -367,7 +676,7 @@ try:
             bytes | None: The bytes to construct the new request from
                 or None for an unmodified request
         """
-        logger.trace(f"Python: _req_edit_out -> {callback_suffix}")
+        logger.trace("Python: _req_edit_out -> %s", callback_suffix)
         callback = callable_objs.get("req_edit_out" + callback_suffix)
         if callback is None:
             return None
@@ -378,7 +687,7 @@ try:
         if not call_match_callback(flow, "req_edit_out"):
             return None
 
-        logger.trace(f"Python: calling {callback.__name__}")
+        logger.trace("Python: calling %s", callback.__name__)
         # Call the user callback and return the bytes to construct the new request from
         result = cast(Request | None, callback(py_req, bytes(text)))
         return result and result.to_burp()
@@ -399,21 +708,56 @@ try:
         Returns:
             bytes | None: The bytes to display in the editor or None for a disabled editor
         """
-        logger.trace(f"Python: _res_edit_in -> {callback_suffix}")
+        logger.trace("Python: _res_edit_in -> %s", callback_suffix)
         callback = callable_objs.get("res_edit_in" + callback_suffix)
         if callback is None:
             return None
 
-        py_res = Response.from_burp(res, service=service, request=request)
+        py_res = Response.from_burp(
+            res, service=service, request=_converted_request(request)
+        )
 
         flow = Flow(py_res.scheme, py_res.host, py_res.port, py_res.request, py_res)
         if not call_match_callback(flow, "res_edit_in"):
             return None
 
-        logger.trace(f"Python: calling {callback.__name__}")
+        logger.trace("Python: calling %s", callback.__name__)
         # Call the user callback and return the bytes to display in the editor
         return cast(bytes | None, callback(py_res))
 
+    @_try_wrap
+    def _res_edit_in_all(
+        res: IHttpResponse,
+        request: IHttpRequest,
+        service: IHttpService,
+        callback_suffixes: list[str] = ...,
+    ) -> dict[str, Any]:
+        """Wrapper rendering every response editor tab with a single conversion
+
+        Args:
+            res (IHttpResponse): The response object
+            callback_suffixes (list[str]): The tabs hooks suffixes
+
+        Returns:
+            dict[str, Any]: The bytes to display for each suffix, None for a disabled tab
+        """
+        logger.trace("Python: _res_edit_in_all -> %s", callback_suffixes)
+        py_res = Response.from_burp(
+            res, service=service, request=_converted_request(request)
+        )
+
+        flow = Flow(py_res.scheme, py_res.host, py_res.port, py_res.request, py_res)
+        if not call_match_callback(flow, "res_edit_in"):
+            return dict.fromkeys(callback_suffixes)
+
+        # The cached request may have been modified too, so convert the Burp one.
+        return _render_all_tabs(
+            py_res,
+            lambda: Response.from_burp(res, service=service, request=request),
+            "res_edit_in",
+            list(callback_suffixes),
+        )
+
     @_try_wrap
     def _res_edit_out(
         res: IHttpResponse,
@@ -433,7 +777,7 @@ try:
             bytes | None: The bytes to construct the new response from
                 or None for an unmodified response
         """
-        logger.trace(f"Python: _res_edit_out -> {callback_suffix}")
+        logger.trace("Python: _res_edit_out -> %s", callback_suffix)
         callback = callable_objs.get("res_edit_out" + callback_suffix)
         if callback is None:
             return None
@@ -446,7 +790,7 @@ try:
         if not call_match_callback(flow, "res_edit_out"):
             return None
 
-        logger.trace(f"Python: calling {callback.__name__}")
+        logger.trace("Python: calling %s", callback.__name__)
         # Call the user callback and return the bytes to construct the new response from
         result = cast(Response | None, callback(py_res, bytes(text)))
         return result and result.to_burp()
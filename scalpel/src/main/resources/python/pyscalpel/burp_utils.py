@@ -8,7 +8,7 @@ from pyscalpel.java.burp.http_response import IHttpResponse, HttpResponse
 from pyscalpel.java.burp.byte_array import IByteArray, ByteArray
 from pyscalpel.java.burp.http_parameter import IHttpParameter, HttpParameter
 from pyscalpel.java.bytes import JavaBytes
-from pyscalpel.java.scalpel_types.utils import PythonUtils
+from pyscalpel.java.scalpel_types.utils import PythonUtils, ContentDecoder
 from pyscalpel.encoding import always_bytes, urldecode, urlencode_all
 
 
@@ -73,7 +73,38 @@ def get_bytes(array: IByteArray) -> bytes:
 def to_bytes(obj: ByteArraySerialisable | JavaBytes) -> bytes:
     # Handle java signed bytes
     if isinstance(obj, Iterable):
-        # Convert java signed bytes to python unsigned bytes
-        return bytes([b & 0xFF for b in cast(JavaBytes, obj)])
+        try:
+            # Fast path: Jep exposes primitive arrays through the buffer protocol,
+            # so the raw bytes can be copied at once without going through Python ints.
+            return bytes(memoryview(cast(JavaBytes, obj)))
+        except TypeError:
+            # Convert java signed bytes to python unsigned bytes
+            return bytes([b & 0xFF for b in cast(JavaBytes, obj)])
 
     return get_bytes(cast(ByteArraySerialisable, obj).toByteArray())
+
+
+def decode_content(content: bytes, encoding: str) -> bytes | None:
+    """Decode a body according to its Content-Encoding using the Java decoder
+
+    Bodies are decoded once and cached Java side, keyed by their Python hash
+    which is computed once per bytes object, so the hooks and editors handling the same message
+    don't decompress it again and a cached body isn't copied to Java to be looked up.
+
+    Args:
+        content (bytes): The encoded body
+        encoding (str): The Content-Encoding (gzip, deflate, br, zstd)
+
+    Returns:
+        bytes | None: The decoded body, None when it exceeds the decoded size limit
+    """
+    content = bytes(content)
+    key = hash(content)
+
+    decoded = ContentDecoder.cached(key, len(content), encoding)
+    if decoded is None:
+        decoded = ContentDecoder.decode(PythonUtils.toJavaBytes(content), encoding, key)
+    if decoded is None:
+        return None
+
+    return to_bytes(cast(JavaBytes, decoded))
@@ -15,8 +15,8 @@ from pyscalpel.java.burp import (
     IByteArray,
     IHttpRequestResponse,
 )
-from pyscalpel.burp_utils import get_bytes
-from pyscalpel.java.scalpel_types.utils import PythonUtils
+from pyscalpel.burp_utils import get_bytes, decode_content
+from pyscalpel.java.scalpel_types.utils import PythonUtils, ContentDecoder
 from pyscalpel.encoding import always_bytes, always_str
 from pyscalpel.http.headers import Headers
 from pyscalpel.http.mime import get_header_value_without_params
@@ -50,6 +50,7 @@ from mitmproxy.net.http.url import (
     decode as url_decode,
 )
 from mitmproxy.net.http import cookies
+from mitmproxy.net.encoding import decode as mitmproxy_decode
 import pyscalpel._globals
 
 if TYPE_CHECKING:
@@ -103,6 +104,7 @@ class Request:
     _content: _Content | None = None
     _old_deserialized_content: Any = None
     _is_form_initialized: bool = False
+    _decoded_memo: tuple[bytes, str, bytes] | None = None
     update_content_length: bool = True
 
     def __init__(
@@ -450,6 +452,13 @@ class Request:
             self._content = serialized
             return
 
+        if isinstance(serialized, memoryview):
+            # A mapped large body, only parse it if the form is accessed.
+            self._content = serialized
+            self._deserialized_content = None
+            self._old_deserialized_content = None
+            return
+
         # Update the parsed form
         self._deserialized_content = self._serializer.deserialize(serialized, self)
         self._old_deserialized_content = deepcopy(self._deserialized_content)
@@ -463,7 +472,7 @@ class Request:
 
         if self._content:
             self._deserialized_content = self._serializer.deserialize(
-                self._content, req=self
+                bytes(self._content), req=self
             )
 
     def _update_deserialized_content(self, deserialized: Any):
@@ -504,10 +513,10 @@ class Request:
             case str():
                 value = value.encode()
 
-        self._update_content_length()
-
         self._update_serialized_content(value)
 
+        self._update_content_length()
+
     @property
     def body(self) -> bytes | None:
         """Alias for content()
@@ -521,6 +530,45 @@ class Request:
     def body(self, value: bytes | str | None):
         self.content = value
 
+    def get_content(self, strict: bool = True) -> bytes | None:
+        """The request body decoded according to its Content-Encoding
+
+        Decoding is delegated to Scalpel's Java decoder like `Response.get_content()`,
+        the last decoded body is also kept on the instance so repeated accesses are free.
+
+        Args:
+            strict (bool, optional): Raise a ValueError when the body can't be decoded, return it as is otherwise.
+
+        Returns:
+            bytes | None: The decoded body if it exists
+        """
+        raw = self.content
+        ce = self.headers.get("Content-Encoding")
+        if raw is None or not ce:
+            return raw
+
+        memo = self._decoded_memo
+        if memo is not None and memo[0] is raw and memo[1] == ce:
+            return memo[2]
+
+        try:
+            if ContentDecoder is None:
+                decoded = mitmproxy_decode(bytes(raw), ce)
+            else:
+                decoded = decode_content(raw, ce)
+        except Exception as exc:  # pylint: disable=broad-except
+            if strict:
+                raise ValueError(f"Invalid Content-Encoding: {ce}") from exc
+            return raw
+
+        if decoded is None:
+            if strict:
+                raise ValueError(f"Decoded body is too large ({ce})")
+            return raw
+
+        self._decoded_memo = (raw, ce, cast(bytes, decoded))
+        return cast(bytes, decoded)
+
     def update_serializer_from_content_type(
         self,
         content_type: ImplementedContentType | str | None = None,
@@ -682,6 +730,10 @@ class Request:
         # Set the serializer and update the content
         self._set_serializer(serializer)
 
+        # Mapped large bodies are only parsed when the form is first accessed.
+        if self._deserialized_content is None:
+            self._deserialize_content()
+
         # Return the new form
         return self._deserialized_content
 
@@ -7,7 +7,8 @@ from mitmproxy.http import (
 )
 
 from pyscalpel.java.burp.http_response import IHttpResponse, HttpResponse
-from pyscalpel.burp_utils import get_bytes
+from pyscalpel.burp_utils import get_bytes, decode_content
+from pyscalpel.java.scalpel_types.utils import ContentDecoder
 from pyscalpel.java.burp.byte_array import IByteArray
 from pyscalpel.java.scalpel_types.utils import PythonUtils
 from pyscalpel.encoding import always_bytes
@@ -36,6 +37,7 @@ class Response(MITMProxyResponse):
     host: str = ""
     port: int = 0
     request: Request | None = None
+    _decoded_memo: tuple[bytes, str, bytes] | None = None
 
     def __init__(
         self,
@@ -86,9 +88,13 @@ class Response(MITMProxyResponse):
         cls,
         response: IHttpResponse,
         service: IHttpService | None = None,
-        request: IHttpRequest | None = None,
+        request: IHttpRequest | Request | None = None,
     ) -> Response:
-        """Construct an instance of the Response class from a Burp suite :class:`IHttpResponse`."""
+        """Construct an instance of the Response class from a Burp suite :class:`IHttpResponse`.
+
+        The initiating request can be passed already converted to avoid parsing it again,
+        it is then used as is.
+        """
         body = get_bytes(cast(IByteArray, response.body())) if response.body() else b""
         scalpel_response = cls(
             always_bytes(response.httpVersion() or "HTTP/1.1"),
@@ -99,8 +105,18 @@ class Response(MITMProxyResponse):
             None,
         )
 
-        burp_request: IHttpRequest | None = request
-        if burp_request is None:
+        if isinstance(request, Request):
+            scalpel_response.request = request
+            if not service:
+                scalpel_response.scheme = request.scheme
+                scalpel_response.host = request.host
+                scalpel_response.port = request.port
+
+            burp_request: IHttpRequest | None = None
+        else:
+            burp_request = request
+
+        if burp_request is None and scalpel_response.request is None:
             try:
                 # Some responses can have a "initiatingRequest" field.
                 # https://portswigger.github.io/burp-extensions-montoya-api/javadoc/burp/api/montoya/http/handler/HttpResponseReceived.html#initiatingRequest():~:text=HttpRequest-,initiatingRequest(),-Returns%3A
@@ -190,6 +206,35 @@ class Response(MITMProxyResponse):
 
         return res
 
+    def get_content(self, strict: bool = True) -> bytes | None:
+        """The decoded response body, see [mitmproxy.http.Message.get_content](https://docs.mitmproxy.org/stable/api/mitmproxy/http.html#Message.get_content)
+
+        Decoding is delegated to Scalpel's Java decoder which caches the results,
+        the last decoded body is also kept on the instance so repeated accesses are free.
+        """
+        raw = self.raw_content
+        ce = self.headers.get("content-encoding")
+        if raw is None or not ce or ContentDecoder is None:
+            return super().get_content(strict)
+
+        memo = self._decoded_memo
+        if memo is not None and memo[0] is raw and memo[1] == ce:
+            return memo[2]
+
+        try:
+            decoded = decode_content(raw, ce)
+        except Exception:  # pylint: disable=broad-except
+            # Let mitmproxy decode it to get its errors and non-strict fallback.
+            return super().get_content(strict)
+
+        if decoded is None:
+            if strict:
+                raise ValueError(f"Decoded body is too large ({ce})")
+            return raw
+
+        self._decoded_memo = (raw, ce, decoded)
+        return decoded
+
     def host_is(self, *patterns: str) -> bool:
         """Matches the host against the provided patterns
 
@@ -1,4 +1,24 @@
-from fnmatch import fnmatch
+import os
+import re
+from fnmatch import translate
+from functools import lru_cache
+
+
+@lru_cache(maxsize=1024)
+def _compile_patterns(patterns: tuple[str, ...]) -> re.Pattern[str]:
+    """Compiles unix-like wildcard patterns to a single regex matching any of them
+
+    Hooks usually match against the same few patterns, so the compiled regex is cached.
+
+    Args:
+        patterns (tuple[str, ...]): The patterns to compile
+
+    Returns:
+        re.Pattern[str]: The compiled alternation
+    """
+    return re.compile(
+        "|".join(f"(?:{translate(os.path.normcase(pattern))})" for pattern in patterns)
+    )
 
 
 def match_patterns(to_match: str, *patterns: str) -> bool:
@@ -11,10 +31,11 @@ def match_patterns(to_match: str, *patterns: str) -> bool:
     Returns:
         bool: The match result (True if at least one pattern matches, else False)
     """
-    for pattern in patterns:
-        if fnmatch(to_match, pattern):
-            return True
-    return False
+    if not patterns:
+        return False
+
+    # Same semantics as fnmatch.fnmatch, without recompiling or looking up each pattern.
+    return _compile_patterns(patterns).match(os.path.normcase(to_match)) is not None
 
 
 def host_is(host: str, *patterns: str) -> bool:
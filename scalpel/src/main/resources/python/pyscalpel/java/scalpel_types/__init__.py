@@ -1,4 +1,10 @@
 from .context import Context
-from .utils import IPythonUtils, PythonUtils
+from .utils import IPythonUtils, PythonUtils, IContentDecoder, ContentDecoder
 
-__all__ = ["Context", "IPythonUtils", "PythonUtils"]
+__all__ = [
+    "Context",
+    "IPythonUtils",
+    "PythonUtils",
+    "IContentDecoder",
+    "ContentDecoder",
+]
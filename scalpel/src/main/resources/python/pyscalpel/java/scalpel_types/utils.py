@@ -31,6 +31,10 @@ class IPythonUtils(JavaObject):
     def getClassName(self, msg: JavaObject) -> str:
         pass
 
+    @abstractmethod
+    def requestKey(self, request: IHttpRequest) -> str:
+        pass
+
     @abstractmethod
     def updateHeader(
         self, msg: RequestOrResponse, name: str, value: str
@@ -38,4 +42,23 @@ class IPythonUtils(JavaObject):
         pass
 
 
+class IContentDecoder(JavaObject):
+    __metaclass__ = ABCMeta
+
+    @abstractmethod
+    def cached(self, hash: int, length: int, encoding: str) -> JavaBytes | None:
+        pass
+
+    @abstractmethod
+    def decode(self, content: JavaBytes, encoding: str, hash: int) -> JavaBytes | None:
+        pass
+
+    @abstractmethod
+    def clearCache(self) -> None:
+        pass
+
+
 PythonUtils: IPythonUtils = import_java("lexfo.scalpel", "PythonUtils", IPythonUtils)
+ContentDecoder: IContentDecoder = import_java(
+    "lexfo.scalpel", "ContentDecoder", IContentDecoder
+)
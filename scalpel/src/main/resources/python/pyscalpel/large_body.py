@@ -0,0 +1,65 @@
+"""
+    Bodies larger than the large body threshold (configured in the Scalpel tab) are not copied through the interpreter.
+
+    By default, `request` / `response` hooks are skipped for such messages,
+    the user can apply the `large_body` decorator to a hook to receive them anyway:
+    the body is then memory-mapped read-only and exposed as a `memoryview` in the message content.
+
+    Only the proxy hooks are concerned, editor hooks always receive the whole message.
+    Skipped hooks and spilled bodies are logged.
+"""
+import mmap
+from contextlib import contextmanager
+from typing import Callable, Iterator
+
+LARGE_BODY_ANNOTATION = "scalpel_large_body"
+
+
+def large_body(hook: Callable):
+    """Decorator to let a request / response hook receive bodies above the large body threshold
+
+    The body is memory-mapped from a temporary file that only lives for the duration of the hook,
+    so it must be copied (e.g. with `bytes()`) if it has to outlive the call.
+
+    Example:
+    ```py
+        @large_body
+        def response(res: Response) -> Response | None:
+            if res.content[:4] == b"%PDF":
+                logger.info(f"PDF of {len(res.content)} bytes")
+    ```
+
+    Args:
+        hook (Callable): The request / response hook
+    """
+    hook.__annotations__[LARGE_BODY_ANNOTATION] = "mmap"
+    return hook
+
+
+@contextmanager
+def map_body_file(path: str) -> Iterator[memoryview]:
+    """Memory-maps a spilled body file read-only
+
+    Args:
+        path (str): The path of the file written by Scalpel
+
+    Yields:
+        memoryview: A zero-copy view over the file's content
+    """
+    with open(path, "rb") as file:
+        # mmap refuses to map empty files.
+        if file.seek(0, 2) == 0:
+            yield memoryview(b"")
+            return
+
+        mapped = mmap.mmap(file.fileno(), 0, access=mmap.ACCESS_READ)
+        view = memoryview(mapped)
+        try:
+            yield view
+        finally:
+            view.release()
+            try:
+                mapped.close()
+            except BufferError:
+                # A slice of the view is still referenced by the user, the mapping will be closed when it is collected.
+                pass
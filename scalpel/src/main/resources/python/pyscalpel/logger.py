@@ -2,72 +2,160 @@ import sys
 from pyscalpel.java import import_java
 
 
+# Log levels, mirroring lexfo.scalpel.ScalpelLogger.Level values
+TRACE = 1
+DEBUG = 2
+INFO = 3
+WARN = 4
+ERROR = 5
+FATAL = 6
+ALL = 7
+
+
+def _format(msg: str, args: tuple) -> str:
+    return msg % args if args else msg
+
+
 # Define a default logger to use if for some reason the logger is not initialized
 # (e.g. running the script from pdoc)
 class Logger:
-    """Provides methods for logging messages to the Burp Suite output and standard streams."""
+    """Provides methods for logging messages to the Burp Suite output and standard streams.
 
-    def all(self, msg: str):
+    Messages can use %-style placeholders, their arguments are only formatted when the message is logged:
+    ```py
+        logger.trace("Received %d bytes", len(req.content))
+    ```
+    """
+
+    level: int = TRACE
+
+    def all(self, msg: str, *args):
         """Prints the message to the standard output
 
         Args:
             msg (str): The message to print
+            args: The message formatting arguments
         """
-        print(f"(default): {msg}")
+        print(f"(default): {_format(msg, args)}")
 
-    def trace(self, msg: str):
+    def trace(self, msg: str, *args):
         """Prints the message to the standard output
 
         Args:
             msg (str): The message to print
+            args: The message formatting arguments
         """
-        print(f"(default): {msg}")
+        print(f"(default): {_format(msg, args)}")
 
-    def debug(self, msg: str):
+    def debug(self, msg: str, *args):
         """Prints the message to the standard output
 
         Args:
             msg (str): The message to print
+            args: The message formatting arguments
         """
-        print(f"(default): {msg}")
+        print(f"(default): {_format(msg, args)}")
 
-    def info(self, msg: str):
+    def info(self, msg: str, *args):
         """Prints the message to the standard output
 
         Args:
             msg (str): The message to print
+            args: The message formatting arguments
         """
-        print(f"(default): {msg}")
+        print(f"(default): {_format(msg, args)}")
 
-    def warn(self, msg: str):
+    def warn(self, msg: str, *args):
         """Prints the message to the standard output
 
         Args:
             msg (str): The message to print
+            args: The message formatting arguments
         """
-        print(f"(default): {msg}")
+        print(f"(default): {_format(msg, args)}")
 
-    def fatal(self, msg: str):
+    def fatal(self, msg: str, *args):
         """Prints the message to the standard output
 
         Args:
             msg (str): The message to print
+            args: The message formatting arguments
         """
-        print(f"(default): {msg}")
+        print(f"(default): {_format(msg, args)}")
 
-    def error(self, msg: str):
+    def error(self, msg: str, *args):
         """Prints the message to the standard error
 
         Args:
             msg (str): The message to print
+            args: The message formatting arguments
+        """
+        print(f"(default): {_format(msg, args)}", file=sys.stderr)
+
+    def set_level(self, level: int):
+        """Sets the minimum level of the logged messages
+
+        Args:
+            level (int): The level (TRACE, DEBUG, INFO, WARN, ERROR, FATAL, ALL)
         """
-        print(f"(default): {msg}", file=sys.stderr)
+        self.level = level
+
+    def is_enabled_for(self, level: int) -> bool:
+        """Whether messages of the given level are logged
+
+        Useful to skip computing expensive log messages.
+
+        Args:
+            level (int): The level (TRACE, DEBUG, INFO, WARN, ERROR, FATAL, ALL)
+        """
+        return self.level <= level
+
+
+class ScalpelLogger(Logger):
+    """Logger forwarding messages to the Java ScalpelLogger
+
+    The Java log level is mirrored locally (Scalpel notifies it when it changes),
+    so disabled messages are dropped without being formatted or crossing JNI.
+    """
+
+    def __init__(self, java_logger):
+        self._logger = java_logger
+        self.level = java_logger.getLevel().value()
+
+    def all(self, msg: str, *args):
+        self._logger.all(_format(msg, args))
+
+    def trace(self, msg: str, *args):
+        if self.level <= TRACE:
+            self._logger.trace(_format(msg, args))
+
+    def debug(self, msg: str, *args):
+        if self.level <= DEBUG:
+            self._logger.debug(_format(msg, args))
+
+    def info(self, msg: str, *args):
+        if self.level <= INFO:
+            self._logger.info(_format(msg, args))
+
+    def warn(self, msg: str, *args):
+        if self.level <= WARN:
+            self._logger.warn(_format(msg, args))
+
+    def fatal(self, msg: str, *args):
+        if self.level <= FATAL:
+            self._logger.fatal(_format(msg, args))
+
+    def error(self, msg: str, *args):
+        # Errors are always logged.
+        self._logger.error(_format(msg, args))
 
 
 try:
-    logger: Logger = import_java("lexfo.scalpel", "ScalpelLogger", Logger)
+    _java_logger = import_java("lexfo.scalpel", "ScalpelLogger")
+    logger: Logger = (
+        ScalpelLogger(_java_logger) if _java_logger is not None else Logger()
+    )
 except ImportError as ex:
     logger: Logger = Logger()
     logger.error("(default): Couldn't import logger")
     logger.error(str(ex))
-
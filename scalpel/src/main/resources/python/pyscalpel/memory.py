@@ -0,0 +1,44 @@
+"""
+    Memory usage of the Python side, sampled by the soak test (scalpel/src/loadtest).
+
+    The first call starts tracemalloc, allocations are only traced from then on.
+    Tracing slows down every allocation, so it is never started in a regular Burp session.
+"""
+import gc
+import tracemalloc
+from typing import Any
+
+TRACED_FRAMES = 8
+"""Frames kept for each traced allocation"""
+
+
+def usage(top: int = 10) -> dict[str, Any]:
+    """Returns the traced memory and the largest allocation sites
+
+    Args:
+        top (int, optional): The number of allocation sites. Defaults to 10.
+
+    Returns:
+        dict[str, Any]: The traced bytes ("traced", "peak"),
+            the number of objects tracked by the garbage collector ("objects"),
+            and the largest allocation sites ("sites") as [file:line, bytes, allocations] lists.
+    """
+    if not tracemalloc.is_tracing():
+        tracemalloc.start(TRACED_FRAMES)
+
+    snapshot = tracemalloc.take_snapshot().filter_traces(
+        (tracemalloc.Filter(False, tracemalloc.__file__),)
+    )
+    traced, peak = tracemalloc.get_traced_memory()
+
+    sites = []
+    for stat in snapshot.statistics("lineno")[:top]:
+        frame = stat.traceback[0]
+        sites.append([f"{frame.filename}:{frame.lineno}", stat.size, stat.count])
+
+    return {
+        "traced": traced,
+        "peak": peak,
+        "objects": len(gc.get_objects()),
+        "sites": sites,
+    }
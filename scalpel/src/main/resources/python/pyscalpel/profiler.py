@@ -0,0 +1,160 @@
+"""
+    On-demand profiler for the user hooks, started from the Scalpel tab.
+
+    While it runs, every hook call is profiled with `sys.setprofile`,
+    the time spent in each call stack is aggregated in the "collapsed stacks" format,
+    which can be turned into a flamegraph by flamegraph.pl, speedscope or https://www.speedscope.app.
+"""
+import os
+import sys
+import time
+from collections import Counter
+from types import FrameType
+from typing import Any
+
+
+class _NoProfile:
+    __slots__ = ()
+
+    def __enter__(self) -> None:
+        pass
+
+    def __exit__(self, *_) -> None:
+        pass
+
+
+_NO_PROFILE = _NoProfile()
+
+
+def _frame_name(frame: FrameType) -> str:
+    code = frame.f_code
+    return f"{code.co_name} ({os.path.basename(code.co_filename)}:{code.co_firstlineno})"
+
+
+def _builtin_name(func: Any) -> str:
+    module = getattr(func, "__module__", None)
+    name = getattr(func, "__qualname__", None) or getattr(func, "__name__", repr(func))
+    return f"{module}.{name}" if module else name
+
+
+class HookProfiler:
+    """Aggregates the time spent in the hooks by call stack"""
+
+    def __init__(self):
+        self.stacks: Counter[str] = Counter()
+        """Self time (in nanoseconds) of each collapsed stack"""
+
+        self.deadline: float = 0
+        self.output_dir: str = ""
+
+        # Stack of the running calls, as [path, start, time spent in children] entries.
+        self._calls: list[list[Any]] = []
+
+    @property
+    def active(self) -> bool:
+        """Whether the hooks are being profiled"""
+        return self.deadline != 0 and time.monotonic() < self.deadline
+
+    def start(self, duration: float, output_dir: str) -> None:
+        """Starts profiling the hooks, discarding the previous samples
+
+        Args:
+            duration (float): Time (in seconds) after which the hooks stop being profiled.
+            output_dir (str): Directory the collapsed stacks are written to by `stop()`.
+        """
+        self.stacks.clear()
+        self.output_dir = output_dir
+        self.deadline = time.monotonic() + duration
+
+    def profile(self, hook: str) -> "HookProfiler | _NoProfile":
+        """Profiles the enclosed hook call when the profiler is active
+
+        Args:
+            hook (str): The hook name, root of the recorded stacks.
+
+        Returns:
+            HookProfiler | _NoProfile: A context manager, which does nothing when the profiler is inactive.
+        """
+        # Nested hooks are already recorded by the enclosing one.
+        if self._calls or not self.active:
+            return _NO_PROFILE
+
+        self._calls.append([hook, time.perf_counter_ns(), 0])
+        return self
+
+    def __enter__(self) -> None:
+        sys.setprofile(self._on_event)
+
+    def __exit__(self, *_) -> None:
+        now = time.perf_counter_ns()
+        sys.setprofile(None)
+
+        # Close the root hook call.
+        del self._calls[1:]
+        self._pop(now)
+
+    def _pop(self, now: int) -> None:
+        path, start, children = self._calls.pop()
+        total = now - start
+        self.stacks[path] += max(0, total - children)
+        if self._calls:
+            self._calls[-1][2] += total
+
+    def _on_event(self, frame: FrameType, event: str, arg: Any) -> None:
+        now = time.perf_counter_ns()
+        if frame.f_code is _EXIT_CODE:
+            # The hook returned, don't profile the profiler.
+            sys.setprofile(None)
+        elif event == "call":
+            self._calls.append([f"{self._calls[-1][0]};{_frame_name(frame)}", now, 0])
+        elif event == "c_call":
+            self._calls.append([f"{self._calls[-1][0]};{_builtin_name(arg)}", now, 0])
+        elif event in ("return", "c_return", "c_exception"):
+            # Keep the root hook call, which is closed by __exit__.
+            if len(self._calls) > 1:
+                self._pop(now)
+
+    def summary(self, top: int = 15) -> str:
+        """Returns the functions with the highest self time
+
+        Args:
+            top (int, optional): The number of functions. Defaults to 15.
+
+        Returns:
+            str: A table of the functions, their self time and share of the total time
+        """
+        self_times: Counter[str] = Counter()
+        for path, nanos in self.stacks.items():
+            self_times[path.rsplit(";", 1)[-1]] += nanos
+
+        total = sum(self_times.values()) or 1
+        lines = [f"{'self (ms)':>10} {'%':>6}  function"]
+        for name, nanos in self_times.most_common(top):
+            lines.append(f"{nanos / 1e6:>10.2f} {100 * nanos / total:>5.1f}%  {name}")
+        return "\n".join(lines)
+
+    def stop(self) -> str | None:
+        """Stops profiling and writes the collapsed stacks, weighted in microseconds
+
+        Returns:
+            str | None: The written file, None when no hook was called.
+        """
+        self.deadline = 0
+        if not self.stacks:
+            return None
+
+        os.makedirs(self.output_dir, exist_ok=True)
+        path = os.path.join(
+            self.output_dir, f"hooks-{time.strftime('%Y%m%d-%H%M%S')}.folded"
+        )
+        with open(path, "w", encoding="utf-8") as file:
+            for stack, nanos in sorted(self.stacks.items()):
+                if nanos >= 1000:
+                    file.write(f"{stack} {nanos // 1000}\n")
+        return path
+
+
+_EXIT_CODE = HookProfiler.__exit__.__code__
+
+profiler = HookProfiler()
+"""The profiler of the running interpreter"""
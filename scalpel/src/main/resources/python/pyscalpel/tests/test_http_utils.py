@@ -0,0 +1,36 @@
+import unittest
+
+from pyscalpel.http.utils import *
+
+
+class MatchPatternsTestCase(unittest.TestCase):
+    def test_match_patterns(self):
+        self.assertTrue(match_patterns("/api/users", "/api/*"))
+        self.assertTrue(match_patterns("/api/users", "/static/*", "/api/*"))
+        self.assertTrue(match_patterns("/api/users", "/api/user?"))
+        self.assertTrue(match_patterns("/api/v1", "/api/v[0-9]"))
+
+        self.assertFalse(match_patterns("/api/users", "/static/*"))
+        self.assertFalse(match_patterns("/api/users", "/api"))
+        self.assertFalse(match_patterns("/api/users"))
+
+    def test_match_patterns_special_chars(self):
+        # Regex special characters are matched literally.
+        self.assertTrue(match_patterns("/search?q=(a|b)", "/search?q=(a|b)"))
+        self.assertFalse(match_patterns("/searchXq=a", "/search.q=a"))
+        self.assertTrue(match_patterns("a.b", "a.b"))
+        self.assertFalse(match_patterns("axb", "a.b"))
+
+    def test_match_patterns_cached(self):
+        self.assertTrue(match_patterns("example.com", "*.org", "example.*"))
+        self.assertTrue(match_patterns("example.org", "*.org", "example.*"))
+        self.assertFalse(match_patterns("test.com", "*.org", "example.*"))
+
+    def test_host_is(self):
+        self.assertTrue(host_is("mail.google.com", "*.google.com"))
+        self.assertFalse(host_is("google.com", "*.google.com"))
+        self.assertTrue(host_is("localhost", "127.0.0.1", "localhost"))
+
+
+if __name__ == "__main__":
+    unittest.main()
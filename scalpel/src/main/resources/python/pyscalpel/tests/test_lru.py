@@ -0,0 +1,50 @@
+import unittest
+
+from pyscalpel.internal.lru import *
+
+
+class LRUCacheTestCase(unittest.TestCase):
+    def test_get_put(self):
+        cache: LRUCache[str, int] = LRUCache(2)
+        cache.put("a", 1)
+
+        self.assertEqual(1, cache.get("a"))
+        self.assertIsNone(cache.get("b"))
+        self.assertIn("a", cache)
+        self.assertEqual(1, len(cache))
+
+    def test_evicts_least_recently_used(self):
+        cache: LRUCache[str, int] = LRUCache(2)
+        cache.put("a", 1)
+        cache.put("b", 2)
+
+        # Touch "a" so "b" becomes the least recently used entry.
+        cache.get("a")
+        cache.put("c", 3)
+
+        self.assertEqual(1, cache.get("a"))
+        self.assertNotIn("b", cache)
+        self.assertEqual(3, cache.get("c"))
+
+    def test_overwrite(self):
+        cache: LRUCache[str, int] = LRUCache(1)
+        cache.put("a", 1)
+        cache.put("a", 2)
+
+        self.assertEqual(2, cache.get("a"))
+        self.assertEqual(1, len(cache))
+
+    def test_clear(self):
+        cache: LRUCache[str, int] = LRUCache(2)
+        cache.put("a", 1)
+        cache.clear()
+
+        self.assertEqual(0, len(cache))
+
+    def test_invalid_maxsize(self):
+        with self.assertRaises(ValueError):
+            LRUCache(0)
+
+
+if __name__ == "__main__":
+    unittest.main()
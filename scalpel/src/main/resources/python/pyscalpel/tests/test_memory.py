@@ -0,0 +1,38 @@
+import tracemalloc
+import unittest
+
+from pyscalpel import memory
+
+
+def allocate() -> list[bytearray]:
+    return [bytearray(1024) for _ in range(1024)]
+
+
+class MemoryUsageTestCase(unittest.TestCase):
+    def tearDown(self):
+        tracemalloc.stop()
+
+    def test_starts_tracing(self):
+        usage = memory.usage()
+
+        self.assertTrue(tracemalloc.is_tracing())
+        self.assertGreater(usage["objects"], 0)
+        self.assertLessEqual(usage["traced"], usage["peak"])
+
+    def test_allocation_sites(self):
+        memory.usage()
+        data = allocate()
+
+        usage = memory.usage(top=3)
+
+        self.assertLessEqual(len(usage["sites"]), 3)
+        site, size, count = usage["sites"][0]
+        self.assertIn("test_memory.py:", site)
+        self.assertGreaterEqual(size, 1024 * 1024)
+        self.assertGreaterEqual(count, 1024)
+        self.assertGreaterEqual(usage["traced"], 1024 * 1024)
+        del data
+
+
+if __name__ == "__main__":
+    unittest.main()
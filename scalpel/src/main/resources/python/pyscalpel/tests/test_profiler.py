@@ -0,0 +1,100 @@
+import os
+import tempfile
+import unittest
+
+from pyscalpel.profiler import HookProfiler
+
+
+def leaf() -> list[int]:
+    return sorted([3, 1, 2])
+
+
+def hook() -> None:
+    leaf()
+    leaf()
+
+
+def failing_hook() -> None:
+    leaf()
+    raise ValueError()
+
+
+class HookProfilerTestCase(unittest.TestCase):
+    def setUp(self):
+        self.dir = tempfile.TemporaryDirectory()  # pylint: disable=consider-using-with
+        self.profiler = HookProfiler()
+
+    def tearDown(self):
+        self.dir.cleanup()
+
+    def test_inactive(self):
+        with self.profiler.profile("request"):
+            hook()
+
+        self.assertFalse(self.profiler.active)
+        self.assertEqual(0, len(self.profiler.stacks))
+        self.assertIsNone(self.profiler.stop())
+
+    def test_collapsed_stacks(self):
+        self.profiler.start(60, self.dir.name)
+        with self.profiler.profile("request"):
+            hook()
+
+        stacks = list(self.profiler.stacks)
+        self.assertIn("request", stacks)
+        self.assertTrue(
+            any(s.startswith("request;hook ") and ";leaf " in s for s in stacks)
+        )
+        self.assertTrue(any(s.endswith(";builtins.sorted") for s in stacks))
+
+        # The profiler itself is not recorded.
+        self.assertFalse(any("(profiler.py:" in s for s in stacks))
+
+    def test_nested_hooks(self):
+        self.profiler.start(60, self.dir.name)
+        with self.profiler.profile("request"):
+            with self.profiler.profile("nested"):
+                hook()
+
+        self.assertFalse(any(s.startswith("nested") for s in self.profiler.stacks))
+
+    def test_exception(self):
+        self.profiler.start(60, self.dir.name)
+        with self.assertRaises(ValueError):
+            with self.profiler.profile("request"):
+                failing_hook()
+
+        # The stack is unwound, so the next call starts from the root.
+        with self.profiler.profile("response"):
+            hook()
+
+        self.assertTrue(any(s.startswith("response;hook ") for s in self.profiler.stacks))
+
+    def test_expired(self):
+        self.profiler.start(0, self.dir.name)
+        with self.profiler.profile("request"):
+            hook()
+
+        self.assertEqual(0, len(self.profiler.stacks))
+
+    def test_stop_writes_file(self):
+        self.profiler.start(60, self.dir.name)
+        with self.profiler.profile("request"):
+            hook()
+
+        path = self.profiler.stop()
+        assert path is not None
+        self.assertEqual(self.dir.name, os.path.dirname(path))
+        self.assertFalse(self.profiler.active)
+
+        with open(path, encoding="utf-8") as file:
+            for line in file:
+                stack, weight = line.rsplit(" ", 1)
+                self.assertTrue(stack.startswith("request"))
+                self.assertGreater(int(weight), 0)
+
+        self.assertIn("function", self.profiler.summary())
+
+
+if __name__ == "__main__":
+    unittest.main()
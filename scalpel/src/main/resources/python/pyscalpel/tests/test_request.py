@@ -52,6 +52,7 @@ from pyscalpel.http.body import (
 
 from pyscalpel.http.request import *
 import unittest
+from mitmproxy.net import encoding
 
 
 class RequestTestCase(unittest.TestCase):
@@ -835,6 +836,41 @@ aHBVVAUAA7usdWR1eAsAAQToAwAABOgDAABQSwUGAAAAAAEAAQBNAAAAsQAAAAAA"""
         req.update_content_length = True
         self.assertEqual(11, req.content_length)
 
+    def test_get_content_encoded(self):
+        req = Request.make(
+            "POST",
+            "http://localhost",
+            content=encoding.encode(b"Hello World!", "gzip"),
+            headers={"Content-Encoding": "gzip"},
+        )
+
+        self.assertEqual(b"Hello World!", req.get_content())
+        # Decoding twice gives the same result.
+        self.assertEqual(b"Hello World!", req.get_content())
+        self.assertNotEqual(b"Hello World!", req.content)
+
+        req.headers["Content-Encoding"] = "deflate"
+        with self.assertRaises(ValueError):
+            req.get_content()
+        self.assertEqual(req.content, req.get_content(strict=False))
+
+    def test_mapped_content(self):
+        req = Request.make(
+            "POST",
+            "http://localhost",
+            content=b"",
+            headers={"Content-Type": "application/json"},
+        )
+
+        body = memoryview(b'{"key": "value"}')
+        req.content = body
+
+        # The mapped body is kept as is and only parsed when the form is accessed.
+        self.assertIs(body, req.content)
+        self.assertEqual(len(body), req.content_length)
+        self.assertIsNone(req._deserialized_content)
+        self.assertEqual("value", req.json_form["key"])
+
     def test_host_is(self):
         req = Request.make("GET", "http://mail.int.google.com")
 
@@ -53,6 +53,19 @@ class ResponseTestCase(unittest.TestCase):
         self.assertTrue(response.host_is("example.com"))
         self.assertFalse(response.host_is("google.com"))
 
+    def test_get_content_encoded(self):
+        response = Response.make(200)
+        response.headers["Content-Encoding"] = "gzip"
+        response.content = b"Hello World!"
+
+        self.assertNotEqual(b"Hello World!", response.raw_content)
+        self.assertEqual(b"Hello World!", response.content)
+        # Decoding twice gives the same result.
+        self.assertEqual(b"Hello World!", response.get_content())
+
+        response.content = b"Updated"
+        self.assertEqual(b"Updated", response.content)
+
 
 if __name__ == "__main__":
     unittest.main()
@@ -0,0 +1,81 @@
+import unittest
+
+from pyscalpel import tracing
+from pyscalpel.tracing import set_trace, span
+
+
+class FakeTrace:
+    def __init__(self):
+        self.spans: list[tuple[str, str, int, int]] = []
+        self.clock = 0
+
+    def id(self) -> int:
+        return 1
+
+    def now(self) -> int:
+        self.clock += 10
+        return self.clock
+
+    def span(self, name: str, category: str, start: int, end: int) -> None:
+        self.spans.append((name, category, start, end))
+
+
+class TracingTestCase(unittest.TestCase):
+    def tearDown(self):
+        set_trace(None)
+
+    def test_disabled(self):
+        with span("stage"):
+            pass
+
+        self.assertIsNone(tracing._trace)  # pylint: disable=protected-access
+
+    def test_records_span(self):
+        trace = FakeTrace()
+        set_trace(trace)
+
+        with span("stage", "hook"):
+            pass
+
+        self.assertEqual(1, len(trace.spans))
+        name, category, start, end = trace.spans[0]
+        self.assertEqual("stage", name)
+        self.assertEqual("hook", category)
+        self.assertLessEqual(start, end)
+
+    def test_uses_the_trace_clock(self):
+        trace = FakeTrace()
+        set_trace(trace)
+
+        with span("stage"):
+            pass
+
+        self.assertEqual([("stage", "python", 10, 20)], trace.spans)
+
+    def test_nested_spans(self):
+        trace = FakeTrace()
+        set_trace(trace)
+
+        with span("outer"):
+            with span("inner"):
+                pass
+
+        # Spans are recorded when they end.
+        self.assertEqual(["inner", "outer"], [s[0] for s in trace.spans])
+        inner, outer = trace.spans
+        self.assertLessEqual(outer[2], inner[2])
+        self.assertGreaterEqual(outer[3], inner[3])
+
+    def test_records_on_exception(self):
+        trace = FakeTrace()
+        set_trace(trace)
+
+        with self.assertRaises(ValueError):
+            with span("failing"):
+                raise ValueError()
+
+        self.assertEqual(["failing"], [s[0] for s in trace.spans])
+
+
+if __name__ == "__main__":
+    unittest.main()
@@ -0,0 +1,90 @@
+"""
+    Opt-in span tracing, enabled from the Scalpel tab.
+
+    When tracing is enabled, Scalpel sets the Java trace of the running task before calling a hook,
+    so the Python stages are written to the same Chrome trace file as the Java ones (in ~/.scalpel/traces).
+
+    Hooks can record their own stages:
+    ```py
+        from pyscalpel.tracing import span
+
+        def request(req: Request) -> Request | None:
+            with span("sign"):
+                req.headers["X-Signature"] = sign(req.content)
+            return req
+    ```
+
+    Spans cost a single check when tracing is disabled.
+"""
+from typing import Protocol
+
+
+class Trace(Protocol):
+    """The Java trace of a task (lexfo.scalpel.Tracer.Trace)"""
+
+    def id(self) -> int:  # pylint: disable=invalid-name
+        """The ID shared by the Java and Python spans of the task"""
+
+    def now(self) -> int:
+        """The current time on the Java trace clock, in microseconds since the Unix epoch"""
+
+    def span(self, name: str, category: str, start: int, end: int) -> None:
+        """Records a finished span, timestamps are microseconds since the Unix epoch"""
+
+
+_trace: Trace | None = None
+
+
+def set_trace(trace: Trace | None) -> None:
+    """Sets the trace of the running task, called by Scalpel
+
+    Args:
+        trace (Trace | None): The task trace, None when the task is processed.
+    """
+    global _trace  # pylint: disable=global-statement
+    _trace = trace
+
+
+class _Span:
+    __slots__ = ("trace", "name", "category", "start")
+
+    def __init__(self, trace: Trace, name: str, category: str):
+        self.trace = trace
+        self.name = name
+        self.category = category
+        self.start = 0
+
+    def __enter__(self) -> None:
+        self.start = self.trace.now()
+
+    def __exit__(self, *_) -> None:
+        self.trace.span(self.name, self.category, self.start, self.trace.now())
+
+
+class _NoSpan:
+    __slots__ = ()
+
+    def __enter__(self) -> None:
+        pass
+
+    def __exit__(self, *_) -> None:
+        pass
+
+
+_NO_SPAN = _NoSpan()
+
+
+def span(name: str, category: str = "python") -> _Span | _NoSpan:
+    """Records the enclosed code as a span of the running task
+
+    Args:
+        name (str): The span name.
+        category (str, optional): The span category. Defaults to "python".
+
+    Returns:
+        _Span | _NoSpan: A context manager, which does nothing when tracing is disabled.
+    """
+    trace = _trace
+    if trace is None:
+        return _NO_SPAN
+    return _Span(trace, name, category)
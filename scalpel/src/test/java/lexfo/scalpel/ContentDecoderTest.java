@@ -0,0 +1,101 @@
+package lexfo.scalpel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ContentDecoderTest {
+
+	private static final byte[] BODY = "Hello World!".getBytes(
+		StandardCharsets.UTF_8
+	);
+
+	@BeforeEach
+	void clearCache() {
+		ContentDecoder.clearCache();
+	}
+
+	private static byte[] gzip(byte[] content) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(content);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] deflate(byte[] content, boolean raw)
+		throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (
+			DeflaterOutputStream deflate = new DeflaterOutputStream(
+				out,
+				new Deflater(Deflater.DEFAULT_COMPRESSION, raw)
+			)
+		) {
+			deflate.write(content);
+		}
+		return out.toByteArray();
+	}
+
+	@Test
+	void decodesTheSupportedEncodings() throws IOException {
+		assertArrayEquals(BODY, ContentDecoder.decode(gzip(BODY), " GZIP ", 1));
+		assertArrayEquals(
+			BODY,
+			ContentDecoder.decode(deflate(BODY, false), "deflate", 2)
+		);
+		// Raw deflate data, as sent by some servers.
+		assertArrayEquals(
+			BODY,
+			ContentDecoder.decode(deflate(BODY, true), "deflate", 3)
+		);
+		assertSame(BODY, ContentDecoder.decode(BODY, "identity", 4));
+	}
+
+	@Test
+	void looksUpDecodedBodiesByTheirHash() throws IOException {
+		final byte[] encoded = gzip(BODY);
+		assertNull(ContentDecoder.cached(42, encoded.length, "gzip"));
+
+		final byte[] decoded = ContentDecoder.decode(encoded, "gzip", 42);
+
+		assertSame(decoded, ContentDecoder.cached(42, encoded.length, "gzip"));
+		assertSame(decoded, ContentDecoder.decode(encoded, "gzip", 42));
+		assertNull(ContentDecoder.cached(42, encoded.length, "br"));
+		assertNull(ContentDecoder.cached(42, encoded.length + 1, "gzip"));
+	}
+
+	@Test
+	void rejectsBodiesAboveTheLimit() throws IOException {
+		final byte[] encoded = gzip(new byte[1024]);
+
+		assertNull(ContentDecoder.decode(encoded, "gzip", 1, 1023));
+		assertNull(ContentDecoder.cached(1, encoded.length, "gzip"));
+		assertArrayEquals(
+			new byte[1024],
+			ContentDecoder.decode(encoded, "gzip", 1, 1024)
+		);
+	}
+
+	@Test
+	void rejectsUnsupportedEncodings() {
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> ContentDecoder.decode(BODY, "compress", 1)
+		);
+		assertThrows(
+			IOException.class,
+			() -> ContentDecoder.decode(BODY, "gzip", 1)
+		);
+	}
+}
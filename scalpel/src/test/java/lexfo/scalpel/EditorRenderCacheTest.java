@@ -0,0 +1,87 @@
+package lexfo.scalpel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import burp.api.montoya.core.ByteArray;
+import com.google.common.hash.HashCode;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EditorRenderCacheTest {
+
+	private static final EditorRenderCache.Key KEY = EditorRenderCache.key(
+		EditorType.REQUEST,
+		"tab",
+		HashCode.fromLong(42),
+		1
+	);
+
+	@BeforeEach
+	void clearCache() {
+		EditorRenderCache.clear();
+	}
+
+	@Test
+	void cachesRenderedContents() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		final ByteArray content = FakeHttp.byteArray(new byte[] { 1, 2, 3 });
+
+		for (int i = 0; i < 2; i++) {
+			assertEquals(
+				Optional.of(content),
+				EditorRenderCache.get(
+					KEY,
+					() -> {
+						calls.incrementAndGet();
+						return Optional.of(content);
+					}
+				)
+			);
+		}
+
+		assertEquals(1, calls.get());
+		assertTrue(EditorRenderCache.contains(KEY));
+	}
+
+	@Test
+	void doesNotCacheEmptyRenders() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+
+		for (int i = 0; i < 2; i++) {
+			assertEquals(
+				Optional.empty(),
+				EditorRenderCache.get(
+					KEY,
+					() -> {
+						calls.incrementAndGet();
+						return Optional.empty();
+					}
+				)
+			);
+		}
+
+		// A failed or rejected call is tried again.
+		assertEquals(2, calls.get());
+		assertFalse(EditorRenderCache.contains(KEY));
+	}
+
+	@Test
+	void cachesDisabledTabsStoredExplicitly() throws Exception {
+		EditorRenderCache.put(KEY, Optional.empty());
+
+		assertTrue(EditorRenderCache.contains(KEY));
+		assertEquals(
+			Optional.empty(),
+			EditorRenderCache.get(
+				KEY,
+				() -> {
+					throw new AssertionError("The disabled tab was rendered again");
+				}
+			)
+		);
+	}
+}
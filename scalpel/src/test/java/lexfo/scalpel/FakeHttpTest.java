@@ -0,0 +1,122 @@
+package lexfo.scalpel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FakeHttpTest {
+
+	private static final String REQUEST = String.join(
+		"\r\n",
+		"POST /api/login?next=%2F HTTP/1.1",
+		"Host: example.com",
+		"Content-Type: application/json",
+		"",
+		"{\"user\":\"admin\"}"
+	);
+
+	private static final String RESPONSE = String.join(
+		"\r\n",
+		"HTTP/1.1 404 Not Found",
+		"Content-Length: 9",
+		"",
+		"not found"
+	);
+
+	@BeforeAll
+	static void installObjectFactory() {
+		FakeHttp.installObjectFactory();
+	}
+
+	@Test
+	void parsesRequests() {
+		final HttpService service = FakeHttp.httpService(
+			"example.com",
+			8443,
+			true
+		);
+		final HttpRequest request = FakeHttp.httpRequest(service, REQUEST);
+
+		assertEquals("POST", request.method());
+		assertEquals("/api/login?next=%2F", request.path());
+		assertEquals("/api/login", request.pathWithoutQuery());
+		assertEquals("next=%2F", request.query());
+		assertEquals("HTTP/1.1", request.httpVersion());
+		assertEquals("https://example.com:8443/api/login?next=%2F", request.url());
+		assertEquals(2, request.headers().size());
+		assertEquals("application/json", request.headerValue("content-type"));
+		assertNull(request.headerValue("Cookie"));
+		assertEquals("{\"user\":\"admin\"}", request.bodyToString());
+		assertEquals(REQUEST, request.toString());
+		assertEquals(service, request.httpService());
+	}
+
+	@Test
+	void parsesResponses() {
+		final HttpResponse response = FakeHttp.httpResponse(RESPONSE);
+
+		assertEquals(404, response.statusCode());
+		assertEquals("Not Found", response.reasonPhrase());
+		assertEquals("HTTP/1.1", response.httpVersion());
+		assertTrue(response.hasHeader("content-length"));
+		assertFalse(response.hasHeader("Content-Type"));
+		assertArrayEquals(
+			"not found".getBytes(StandardCharsets.ISO_8859_1),
+			response.body().getBytes()
+		);
+	}
+
+	@Test
+	void backsTheMontoyaConstructors() {
+		final ByteArray bytes = ByteArray.byteArray("abc");
+		assertEquals(3, bytes.length());
+		assertEquals("bc", bytes.subArray(1, 3).toString());
+
+		final HttpService service = HttpService.httpService(
+			"https://example.com"
+		);
+		assertEquals("example.com", service.host());
+		assertEquals(443, service.port());
+		assertTrue(service.secure());
+
+		final HttpRequest request = HttpRequest.httpRequest(
+			service,
+			ByteArray.byteArray(REQUEST)
+		);
+		assertEquals("/api/login?next=%2F", request.path());
+		assertEquals(service, request.httpService());
+	}
+
+	@Test
+	void wrapsHandlerMessages() {
+		final HttpRequest request = FakeHttp.httpRequest(
+			FakeHttp.httpService("example.com", 80, false),
+			REQUEST
+		);
+
+		final var toBeSent = FakeHttp.requestToBeSent(request, ToolType.PROXY);
+		assertTrue(toBeSent.toolSource().isFromTool(ToolType.PROXY));
+		assertFalse(toBeSent.toolSource().isFromTool(ToolType.REPEATER));
+		assertEquals(REQUEST, toBeSent.toString());
+
+		final var received = FakeHttp.responseReceived(
+			FakeHttp.httpResponse(RESPONSE),
+			request,
+			ToolType.PROXY
+		);
+		assertEquals(request, received.initiatingRequest());
+		assertEquals(404, received.statusCode());
+		assertTrue(received.messageId() > toBeSent.messageId());
+	}
+}
@@ -0,0 +1,93 @@
+package lexfo.scalpel;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+  Exercises the task queue of an executor whose runner never starts, so it runs without Jep.
+  The submitted tasks stay queued and can only end by being woken up.
+*/
+@SuppressWarnings("rawtypes")
+class ScalpelExecutorQueueTest {
+
+	/**
+		Longest time a woken awaiter may take to return, below the 1 s timeout of the await loop
+		so an awaiter that isn't woken is noticed.
+	*/
+	private static final Duration WAKE_BOUND = Duration.ofMillis(500);
+
+	private FakeMontoya montoya;
+	private ScalpelExecutor executor;
+
+	@BeforeEach
+	void createExecutor() {
+		montoya = new FakeMontoya();
+		ScalpelLogger.setLogger(montoya.api().logging());
+		executor = new ScalpelExecutor(montoya.api());
+	}
+
+	/**
+		Submits a task from a new thread and waits for the thread to await it.
+
+		@param result Receives the task result.
+		@return The awaiting thread.
+	*/
+	private Thread awaitTask(AtomicReference<Optional<List>> result)
+		throws InterruptedException {
+		final Thread thread = new Thread(() ->
+			result.set(executor.safeJepInvoke(Constants.GET_CB_NAME, List.class))
+		);
+		thread.start();
+
+		final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (thread.getState() != Thread.State.TIMED_WAITING) {
+			if (System.nanoTime() > deadline) {
+				fail("The task was not awaited: " + thread.getState());
+			}
+			Thread.sleep(5);
+		}
+		return thread;
+	}
+
+	@Test
+	void disableWakesTheAwaitingThreads() throws InterruptedException {
+		final AtomicReference<Optional<List>> result = new AtomicReference<>();
+		final Thread awaiter = awaitTask(result);
+
+		final long start = System.nanoTime();
+		executor.disable();
+		awaiter.join(WAKE_BOUND.toMillis());
+
+		assertFalse(
+			awaiter.isAlive(),
+			"The awaiter was not woken within " + WAKE_BOUND.toMillis() + " ms"
+		);
+		assertTrue(result.get().isEmpty(), "A disabled task returned a result");
+		assertTrue(System.nanoTime() - start <= WAKE_BOUND.toNanos());
+	}
+
+	@Test
+	void rejectsRightAwayWhenDisabled() {
+		executor.disable();
+
+		final long start = System.nanoTime();
+		final Optional<List> result = executor.safeJepInvoke(
+			Constants.GET_CB_NAME,
+			List.class
+		);
+
+		assertTrue(result.isEmpty(), "A disabled task returned a result");
+		assertTrue(
+			System.nanoTime() - start <= WAKE_BOUND.toNanos(),
+			"The rejected task was awaited"
+		);
+	}
+}
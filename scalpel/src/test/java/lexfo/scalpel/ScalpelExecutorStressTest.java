@@ -0,0 +1,384 @@
+package lexfo.scalpel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+  Hammers the executor state machine from many threads with task submissions, hot reloads,
+  enable / disable toggles and rejections, skipped when Jep can't be loaded.
+  <p>
+  Every operation must return within {@link #AWAIT_BOUND}, a lost wakeup, a deadlock
+  or a task stuck in await() fails the test with a dump of the threads.
+  The operations of each worker are drawn from a seed, rerun the same operations with
+  ./gradlew test -PstressSeed=&lt;seed&gt;. The thread scheduling, the reload timing and the deadlines
+  are not seeded, so a rerun doesn't necessarily reproduce the failure.
+*/
+class ScalpelExecutorStressTest {
+
+	/**
+		Echoes the request number, so a result delivered to the wrong task is noticed.
+	*/
+	private static final String SCRIPT = String.join(
+		"\n",
+		"from pyscalpel import Request",
+		"",
+		"",
+		"def request(req: Request) -> Request | None:",
+		"    req.headers[\"X-Echo\"] = req.headers.get(\"X-Seq\")",
+		"    return req",
+		""
+	);
+
+	private static final long SEED = Long.getLong(
+		"scalpel.stressSeed",
+		System.nanoTime()
+	);
+
+	private static final int THREADS = 8;
+
+	private static final int OPERATIONS = 150;
+
+	private static final int MAX_RELOADS = 3;
+
+	/**
+		Longest time an operation may take, covers a submission waiting for an interpreter reload.
+	*/
+	private static final Duration AWAIT_BOUND = Duration.ofSeconds(30);
+
+	/**
+		Longest time a rejection may take, below the 1 s timeout of the await loop
+		so a rejection that doesn't wake its awaiter is noticed.
+	*/
+	private static final Duration REJECT_BOUND = Duration.ofMillis(500);
+
+	/**
+		Longest time a whole run may take before the workers are considered stuck.
+	*/
+	private static final Duration RUN_BOUND = Duration.ofMinutes(3);
+
+	private static FakeMontoya montoya;
+	private static ScalpelExecutor executor;
+	private static ScalpelHttpRequestHandler handler;
+	private static Path script;
+
+	/**
+		Number of times the script was touched, each touch moves its modification time forward.
+	*/
+	private static final AtomicLong touches = new AtomicLong();
+
+	/**
+		An operation run by each worker of a concurrent run.
+	*/
+	@FunctionalInterface
+	private interface Worker {
+		void run(int worker) throws Exception;
+	}
+
+	@BeforeAll
+	static void startExecutor() throws IOException {
+		assumeTrue(
+			ExecutorHarness.isJepAvailable(),
+			"Jep could not be loaded"
+		);
+
+		montoya = new FakeMontoya();
+		executor = ExecutorHarness.start(montoya, SCRIPT);
+		handler = new ScalpelHttpRequestHandler(montoya.api(), null, executor);
+		script = executor.getConfig().getUserScriptPath();
+	}
+
+	@AfterAll
+	static void stopExecutor() {
+		if (executor != null) {
+			executor.disable();
+			montoya.unload();
+		}
+	}
+
+	@AfterEach
+	void restoreExecutor() throws InterruptedException {
+		if (executor != null) {
+			executor.enable();
+			awaitRoundTrip();
+		}
+	}
+
+	/**
+		Sends a request through the request hook.
+
+		@param seq The request number, echoed by the hook.
+		@return Whether the hook processed the request, false when the task was rejected.
+	*/
+	private static boolean roundTrip(long seq) {
+		final HttpRequest edited = handler
+			.handleHttpRequestToBeSent(
+				FakeHttp.requestToBeSent(
+					FakeHttp.httpRequest(
+						FakeHttp.httpService("localhost", 8000, false),
+						"GET /stress HTTP/1.1\r\nHost: localhost\r\nX-Seq: " +
+						seq +
+						"\r\n\r\n"
+					),
+					ToolType.PROXY
+				)
+			)
+			.request();
+
+		final String echo = edited.headerValue("X-Echo");
+		if (echo != null) {
+			assertEquals(
+				String.valueOf(seq),
+				echo,
+				"A result was delivered to the wrong task (seed " + SEED + ")"
+			);
+		}
+		return echo != null;
+	}
+
+	/**
+		Runs an operation and fails when it took longer than the given bound.
+	*/
+	private static void timed(String name, Duration bound, Runnable operation) {
+		final long start = System.nanoTime();
+		operation.run();
+		final long elapsed = System.nanoTime() - start;
+		if (elapsed > bound.toNanos()) {
+			fail(
+				name +
+				" took " +
+				TimeUnit.NANOSECONDS.toMillis(elapsed) +
+				" ms, over the " +
+				bound.toMillis() +
+				" ms bound (seed " +
+				SEED +
+				")\n" +
+				threadDump()
+			);
+		}
+	}
+
+	/**
+		Waits for the hook to process a request again, after a reload or a toggle.
+	*/
+	private static void awaitRoundTrip() throws InterruptedException {
+		final long deadline = System.nanoTime() + AWAIT_BOUND.toNanos();
+		while (!roundTrip(-1)) {
+			if (System.nanoTime() > deadline) {
+				fail(
+					"The executor did not recover (seed " +
+					SEED +
+					")\n" +
+					threadDump()
+				);
+			}
+			Thread.sleep(50);
+		}
+	}
+
+	/**
+		Touches the script so the runner reloads the interpreter.
+	*/
+	private static void touchScript() {
+		IO.ioWrap(() ->
+			Files.setLastModifiedTime(
+				script,
+				FileTime.fromMillis(
+					System.currentTimeMillis() + 1000 * touches.incrementAndGet()
+				)
+			)
+		);
+	}
+
+	private static String threadDump() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		final long[] deadlocked = threads.findDeadlockedThreads();
+		final StringBuilder dump = new StringBuilder()
+			.append("Deadlocked threads: ")
+			.append(deadlocked == null ? "none" : Arrays.toString(deadlocked))
+			.append('\n');
+		for (final ThreadInfo info : threads.dumpAllThreads(true, true)) {
+			dump.append(info);
+		}
+		return dump.toString();
+	}
+
+	/**
+		Runs the worker on {@link #THREADS} threads at once and rethrows the first failure.
+	*/
+	private static void runConcurrently(Worker worker) throws Exception {
+		final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			final List<Future<?>> futures = new ArrayList<>(THREADS);
+			for (int i = 0; i < THREADS; i++) {
+				final int id = i;
+				futures.add(
+					pool.submit(() -> {
+						worker.run(id);
+						return null;
+					})
+				);
+			}
+			pool.shutdown();
+
+			if (!pool.awaitTermination(RUN_BOUND.toMillis(), TimeUnit.MILLISECONDS)) {
+				fail(
+					"The workers are stuck (seed " + SEED + ")\n" + threadDump()
+				);
+			}
+
+			for (final Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Error error) {
+						throw error;
+					}
+					throw new AssertionError(
+						"Worker failed (seed " + SEED + ")",
+						e.getCause()
+					);
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void processesConcurrentSubmissions() throws Exception {
+		runConcurrently(worker -> {
+			for (int i = 0; i < OPERATIONS; i++) {
+				final long seq = (long) worker * OPERATIONS + i;
+				timed(
+					"Request " + seq,
+					AWAIT_BOUND,
+					() -> assertTrue(roundTrip(seq), "Request " + seq + " was rejected")
+				);
+			}
+		});
+	}
+
+	@Test
+	void rejectsWithoutWaitingWhenDisabled() throws Exception {
+		executor.disable();
+
+		runConcurrently(worker -> {
+			for (int i = 0; i < OPERATIONS; i++) {
+				final long seq = (long) worker * OPERATIONS + i;
+				timed(
+					"Rejected request " + seq,
+					REJECT_BOUND,
+					() -> assertFalse(roundTrip(seq), "Request " + seq + " was processed")
+				);
+			}
+		});
+	}
+
+	@Test
+	void keepsTheRunnerAliveWhenReloadingUnderLoad() throws Exception {
+		final AtomicBoolean reloaded = new AtomicBoolean();
+		final AtomicLong seq = new AtomicLong();
+
+		runConcurrently(worker -> {
+			if (worker == 0) {
+				try {
+					for (int i = 0; i < MAX_RELOADS; i++) {
+						final long generation = executor.getInterpreterGeneration();
+						touchScript();
+
+						// Wait for the runner to notice the change and start the new interpreter.
+						final long deadline = System.nanoTime() + AWAIT_BOUND.toNanos();
+						while (executor.getInterpreterGeneration() == generation) {
+							if (System.nanoTime() > deadline) {
+								fail("The script change wasn't noticed (seed " + SEED + ")");
+							}
+							Thread.sleep(10);
+						}
+						awaitRoundTrip();
+					}
+				} finally {
+					reloaded.set(true);
+				}
+				return;
+			}
+
+			// Submissions during a reload are either awaited or rejected, but never stuck.
+			while (!reloaded.get()) {
+				final long n = seq.incrementAndGet();
+				timed("Request " + n, AWAIT_BOUND, () -> roundTrip(n));
+			}
+		});
+	}
+
+	@Test
+	void survivesRandomInterleavings() throws Exception {
+		final AtomicInteger reloads = new AtomicInteger();
+
+		runConcurrently(worker -> {
+			final Random random = new Random(SEED + worker);
+			for (int i = 0; i < OPERATIONS; i++) {
+				final long seq = (long) worker * OPERATIONS + i;
+				final int roll = random.nextInt(100);
+
+				if (roll < 55) {
+					timed("Request " + seq, AWAIT_BOUND, () -> roundTrip(seq));
+				} else if (roll < 75) {
+					timed(
+						"Callables",
+						AWAIT_BOUND,
+						() -> executor.safeJepInvoke(Constants.GET_CB_NAME, List.class)
+					);
+				} else if (roll < 87) {
+					// Every disable is followed by an enable, so the executor ends up enabled.
+					final int pause = random.nextInt(20);
+					timed(
+						"Toggle",
+						AWAIT_BOUND,
+						() -> {
+							executor.disable();
+							IO.run(() -> Thread.sleep(pause));
+							executor.enable();
+						}
+					);
+				} else if (roll < 97) {
+					timed("Notify", AWAIT_BOUND, executor::notifyEventLoop);
+				} else if (reloads.getAndIncrement() < MAX_RELOADS) {
+					touchScript();
+				}
+			}
+		});
+
+		// The runner must still process tasks once the dust settles.
+		awaitRoundTrip();
+	}
+}
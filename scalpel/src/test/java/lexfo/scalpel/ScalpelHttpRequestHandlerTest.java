@@ -0,0 +1,148 @@
+package lexfo.scalpel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.handler.HttpRequestToBeSent;
+import burp.api.montoya.http.handler.HttpResponseReceived;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+  Drives the real _framework.py through the HTTP handler, skipped when Jep can't be loaded.
+*/
+class ScalpelHttpRequestHandlerTest {
+
+	private static final String SCRIPT = String.join(
+		"\n",
+		"from pyscalpel import Request, Response",
+		"",
+		"",
+		"def request(req: Request) -> Request | None:",
+		"    req.headers[\"X-Scalpel\"] = req.method",
+		"    return req",
+		"",
+		"",
+		"def response(res: Response) -> Response | None:",
+		"    if \"Content-Encoding\" not in res.headers:",
+		"        return None",
+		"    res.headers[\"X-Decoded\"] = res.content.decode()",
+		"    return res",
+		""
+	);
+
+	private static final String REQUEST = String.join(
+		"\r\n",
+		"GET /index.html HTTP/1.1",
+		"Host: localhost",
+		"",
+		""
+	);
+
+	private static FakeMontoya montoya;
+	private static ScalpelExecutor executor;
+	private static ScalpelHttpRequestHandler handler;
+
+	@BeforeAll
+	static void startExecutor() throws IOException {
+		assumeTrue(
+			ExecutorHarness.isJepAvailable(),
+			"Jep could not be loaded"
+		);
+
+		montoya = new FakeMontoya();
+		executor = ExecutorHarness.start(montoya, SCRIPT);
+		handler = new ScalpelHttpRequestHandler(montoya.api(), null, executor);
+	}
+
+	@AfterAll
+	static void stopExecutor() {
+		if (executor != null) {
+			executor.disable();
+			montoya.unload();
+		}
+	}
+
+	private static HttpRequest request() {
+		return FakeHttp.httpRequest(
+			FakeHttp.httpService("localhost", 8000, false),
+			REQUEST
+		);
+	}
+
+	@Test
+	void appliesTheRequestHook() {
+		final HttpRequestToBeSent sent = FakeHttp.requestToBeSent(
+			request(),
+			ToolType.PROXY
+		);
+
+		final HttpRequest edited = handler
+			.handleHttpRequestToBeSent(sent)
+			.request();
+
+		assertEquals("GET", edited.headerValue("X-Scalpel"));
+		assertEquals("/index.html", edited.path());
+		assertEquals("localhost", edited.httpService().host());
+		assertEquals(8000, edited.httpService().port());
+	}
+
+	@Test
+	void decodesResponsesWithTheJavaDecoder() throws IOException {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+			gzip.write("Hello World!".getBytes(StandardCharsets.UTF_8));
+		}
+
+		final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+		raw.write(
+			(
+				"HTTP/1.1 200 OK\r\nContent-Encoding: gzip\r\nContent-Length: " +
+				body.size() +
+				"\r\n\r\n"
+			).getBytes(StandardCharsets.ISO_8859_1)
+		);
+		body.writeTo(raw);
+
+		ContentDecoder.clearCache();
+		final HttpResponseReceived received = FakeHttp.responseReceived(
+			FakeHttp.httpResponse(raw.toByteArray()),
+			request(),
+			ToolType.PROXY
+		);
+
+		final HttpResponse edited = handler
+			.handleHttpResponseReceived(received)
+			.response();
+
+		assertEquals("Hello World!", edited.headerValue("X-Decoded"));
+		assertTrue(
+			ContentDecoder.cacheSize() > 0,
+			"The body wasn't decoded by the Java decoder"
+		);
+	}
+
+	@Test
+	void forwardsUnmodifiedResponses() {
+		final HttpResponseReceived received = FakeHttp.responseReceived(
+			FakeHttp.httpResponse("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok"),
+			request(),
+			ToolType.PROXY
+		);
+
+		assertSame(
+			received,
+			handler.handleHttpResponseReceived(received).response()
+		);
+	}
+}
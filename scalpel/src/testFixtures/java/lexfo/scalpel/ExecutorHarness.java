@@ -0,0 +1,99 @@
+package lexfo.scalpel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+  Runs a ScalpelExecutor outside of Burp, with a {@link FakeMontoya} API,
+  a real embedded Jep interpreter and the extracted _framework.py.
+  <p>
+  The first run installs the default workspace in the user home directory, which takes a while,
+  the Gradle tasks point user.home to the build directory so the user's ~/.scalpel is left untouched.
+*/
+public final class ExecutorHarness {
+
+	private static Optional<Boolean> isJepLoaded = Optional.empty();
+
+	private ExecutorHarness() {}
+
+	/**
+		Extracts the ressources and loads the Jep native library, once per JVM.
+
+		@param config The configuration to get the JDK path from.
+		@return Whether Jep could be loaded.
+	*/
+	private static synchronized boolean loadJep(Config config) {
+		if (isJepLoaded.isEmpty()) {
+			try {
+				Scalpel.setupJepFromConfig(config);
+				isJepLoaded = Optional.of(true);
+			} catch (Throwable e) {
+				// No python3 / venv / native library on this machine.
+				ScalpelLogger.logStackTrace(e);
+				isJepLoaded = Optional.of(false);
+			}
+		}
+		return isJepLoaded.get();
+	}
+
+	/**
+		Checks whether an interpreter can be embedded on this machine,
+		so tests needing one can be skipped otherwise.
+
+		@return Whether Jep could be loaded.
+	*/
+	public static boolean isJepAvailable() {
+		RessourcesUnpacker.extractRessourcesToHome();
+		return loadJep(new Config(new FakeMontoya().api()));
+	}
+
+	/**
+		Starts an executor running the given user script and waits for its interpreter.
+
+		@param montoya The API given to the executor, its logging receives Scalpel's logs.
+		@param scriptSource The user script source code, which must define at least one hook for the interpreter to start.
+		@return The started executor.
+		@throws IllegalStateException When Jep is unavailable or the interpreter failed to start.
+	*/
+	public static ScalpelExecutor start(
+		FakeMontoya montoya,
+		String scriptSource
+	) throws IOException {
+		ScalpelLogger.setLogger(montoya.api().logging());
+		RessourcesUnpacker.extractRessourcesToHome();
+
+		final Config config = new Config(montoya.api());
+		if (!loadJep(config)) {
+			throw new IllegalStateException(
+				"Jep could not be loaded, check the errors above."
+			);
+		}
+
+		final Path script = Files.createTempFile("scalpel-harness-", ".py");
+		script.toFile().deleteOnExit();
+		Files.writeString(script, scriptSource);
+		config.setUserScriptPath(script);
+
+		final ScalpelExecutor executor = new ScalpelExecutor(
+			montoya.api(),
+			config
+		);
+
+		// Wait for the interpreter to be ready.
+		@SuppressWarnings("rawtypes")
+		final Optional<List> callables = executor.safeJepInvoke(
+			Constants.GET_CB_NAME,
+			List.class
+		);
+		if (callables.isEmpty()) {
+			executor.disable();
+			throw new IllegalStateException(
+				"The interpreter failed to start: " + montoya.errors
+			);
+		}
+		return executor;
+	}
+}
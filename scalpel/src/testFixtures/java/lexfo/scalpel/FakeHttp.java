@@ -0,0 +1,469 @@
+package lexfo.scalpel;
+
+import static lexfo.scalpel.Stubs.methods;
+import static lexfo.scalpel.Stubs.stub;
+
+import burp.api.montoya.core.Annotations;
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.core.ToolSource;
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.handler.HttpRequestToBeSent;
+import burp.api.montoya.http.handler.HttpResponseReceived;
+import burp.api.montoya.http.handler.RequestToBeSentAction;
+import burp.api.montoya.http.handler.ResponseReceivedAction;
+import burp.api.montoya.http.message.HttpHeader;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import burp.api.montoya.internal.MontoyaObjectFactory;
+import burp.api.montoya.internal.ObjectFactoryLocator;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+  Stand-ins for the Burp HTTP messages, parsed from their raw HTTP/1.1 bytes.
+  <p>
+  {@link #installObjectFactory()} makes the Montoya static constructors (e.g. HttpRequest.httpRequest())
+  return these stand-ins, so Scalpel and the Python framework can build messages outside of Burp.
+*/
+public final class FakeHttp {
+
+	private static final AtomicInteger messageIds = new AtomicInteger();
+
+	private FakeHttp() {}
+
+	/**
+		The head and body boundaries of a raw HTTP message.
+	*/
+	private record Parsed(
+		byte[] raw,
+		String[] startLineParts,
+		List<HttpHeader> headers,
+		int bodyOffset
+	) {
+		static Parsed parse(byte[] raw) {
+			final String text = new String(raw, StandardCharsets.ISO_8859_1);
+
+			int headEnd = text.indexOf("\r\n\r\n");
+			int bodyOffset = headEnd + 4;
+			if (headEnd == -1) {
+				headEnd = text.indexOf("\n\n");
+				bodyOffset = headEnd + 2;
+			}
+			if (headEnd == -1) {
+				headEnd = raw.length;
+				bodyOffset = raw.length;
+			}
+
+			final String[] lines = text.substring(0, headEnd).split("\r?\n");
+			final List<HttpHeader> headers = new ArrayList<>();
+			for (int i = 1; i < lines.length; i++) {
+				final int colon = lines[i].indexOf(':');
+				if (colon > 0) {
+					headers.add(
+						httpHeader(
+							lines[i].substring(0, colon).trim(),
+							lines[i].substring(colon + 1).trim()
+						)
+					);
+				}
+			}
+
+			return new Parsed(
+				raw,
+				lines[0].split(" ", 3),
+				List.copyOf(headers),
+				bodyOffset
+			);
+		}
+
+		String startLine(int index) {
+			return index < startLineParts.length ? startLineParts[index] : "";
+		}
+
+		byte[] body() {
+			return Arrays.copyOfRange(raw, bodyOffset, raw.length);
+		}
+
+		Optional<HttpHeader> header(String name) {
+			return headers
+				.stream()
+				.filter(h -> h.name().equalsIgnoreCase(name))
+				.findFirst();
+		}
+
+		/**
+			The methods shared by requests and responses.
+		*/
+		Map<String, Function<Object[], Object>> messageMethods() {
+			return Map.ofEntries(
+				Map.entry("headers", __ -> headers),
+				Map.entry(
+					"header",
+					args -> header((String) args[0]).orElse(null)
+				),
+				Map.entry(
+					"headerValue",
+					args -> header((String) args[0]).map(HttpHeader::value).orElse(null)
+				),
+				Map.entry(
+					"hasHeader",
+					args ->
+						args[0] instanceof HttpHeader h
+							? header(h.name()).filter(o -> o.value().equals(h.value())).isPresent()
+							: header((String) args[0]).isPresent()
+				),
+				Map.entry("body", __ -> byteArray(body())),
+				Map.entry(
+					"bodyToString",
+					__ -> new String(body(), StandardCharsets.ISO_8859_1)
+				),
+				Map.entry("bodyOffset", __ -> bodyOffset),
+				Map.entry("toByteArray", __ -> byteArray(raw)),
+				Map.entry(
+					"toString",
+					__ -> new String(raw, StandardCharsets.ISO_8859_1)
+				)
+			);
+		}
+	}
+
+	private static byte[] bytes(Object data) {
+		if (data instanceof ByteArray array) {
+			return array.getBytes();
+		}
+		if (data instanceof int[] ints) {
+			final byte[] result = new byte[ints.length];
+			for (int i = 0; i < ints.length; i++) {
+				result[i] = (byte) ints[i];
+			}
+			return result;
+		}
+		if (data instanceof byte[] array) {
+			return array;
+		}
+		return String.valueOf(data).getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+		Creates a ByteArray backed by the given bytes.
+
+		@param bytes The bytes, must not be modified afterwards.
+		@return The ByteArray.
+	*/
+	public static ByteArray byteArray(byte[] bytes) {
+		return stub(
+			ByteArray.class,
+			Map.of(
+				"getBytes",
+				__ -> bytes.clone(),
+				"length",
+				__ -> bytes.length,
+				"getByte",
+				args -> bytes[(int) args[0]],
+				"subArray",
+				args ->
+					args.length == 2
+						? byteArray(
+							Arrays.copyOfRange(bytes, (int) args[0], (int) args[1])
+						)
+						: byteArray(
+							Arrays.copyOfRange(bytes, (int) args[0], bytes.length)
+						),
+				"copy",
+				__ -> byteArray(bytes),
+				"toString",
+				__ -> new String(bytes, StandardCharsets.ISO_8859_1)
+			)
+		);
+	}
+
+	/**
+		Creates an HTTP service.
+
+		@param host The host.
+		@param port The port.
+		@param secure Whether the service uses TLS.
+		@return The service.
+	*/
+	public static HttpService httpService(String host, int port, boolean secure) {
+		return stub(
+			HttpService.class,
+			Map.of(
+				"host",
+				__ -> host,
+				"port",
+				__ -> port,
+				"secure",
+				__ -> secure,
+				"toString",
+				__ -> (secure ? "https://" : "http://") + host + ":" + port
+			)
+		);
+	}
+
+	/**
+		Creates an HTTP header.
+
+		@param name The header name.
+		@param value The header value.
+		@return The header.
+	*/
+	public static HttpHeader httpHeader(String name, String value) {
+		return stub(
+			HttpHeader.class,
+			Map.of(
+				"name",
+				__ -> name,
+				"value",
+				__ -> value,
+				"toString",
+				__ -> name + ": " + value
+			)
+		);
+	}
+
+	private static Map<String, Function<Object[], Object>> requestMethods(
+		HttpService service,
+		byte[] raw
+	) {
+		final Parsed parsed = Parsed.parse(raw);
+		final String target = parsed.startLine(1);
+		final String url = service == null
+			? target
+			: service.toString() + target;
+
+		return methods(
+			parsed.messageMethods(),
+			Map.of(
+				"httpService",
+				__ -> service,
+				"method",
+				__ -> parsed.startLine(0),
+				"path",
+				__ -> target,
+				"pathWithoutQuery",
+				__ -> target.split("\\?", 2)[0],
+				"query",
+				__ -> target.contains("?") ? target.split("\\?", 2)[1] : "",
+				"url",
+				__ -> url,
+				"httpVersion",
+				__ -> parsed.startLine(2)
+			)
+		);
+	}
+
+	private static Map<String, Function<Object[], Object>> responseMethods(
+		byte[] raw
+	) {
+		final Parsed parsed = Parsed.parse(raw);
+		return methods(
+			parsed.messageMethods(),
+			Map.of(
+				"httpVersion",
+				__ -> parsed.startLine(0),
+				"statusCode",
+				__ -> Short.parseShort(parsed.startLine(1)),
+				"reasonPhrase",
+				__ -> parsed.startLine(2)
+			)
+		);
+	}
+
+	/**
+		Creates a request from its raw bytes.
+
+		@param service The service the request is sent to, may be null.
+		@param raw The raw HTTP/1.1 request.
+		@return The request.
+	*/
+	public static HttpRequest httpRequest(HttpService service, byte[] raw) {
+		return stub(HttpRequest.class, requestMethods(service, raw));
+	}
+
+	/**
+		Creates a request from its raw text.
+
+		@param service The service the request is sent to, may be null.
+		@param raw The raw HTTP/1.1 request.
+		@return The request.
+	*/
+	public static HttpRequest httpRequest(HttpService service, String raw) {
+		return httpRequest(service, bytes(raw));
+	}
+
+	/**
+		Creates a response from its raw bytes.
+
+		@param raw The raw HTTP/1.1 response.
+		@return The response.
+	*/
+	public static HttpResponse httpResponse(byte[] raw) {
+		return stub(HttpResponse.class, responseMethods(raw));
+	}
+
+	/**
+		Creates a response from its raw text.
+
+		@param raw The raw HTTP/1.1 response.
+		@return The response.
+	*/
+	public static HttpResponse httpResponse(String raw) {
+		return httpResponse(bytes(raw));
+	}
+
+	private static Map<String, Function<Object[], Object>> handlerMethods(
+		ToolType tool
+	) {
+		final ToolSource source = stub(
+			ToolSource.class,
+			Map.of(
+				"toolType",
+				__ -> tool,
+				"isFromTool",
+				args -> Arrays.asList((Object[]) args[0]).contains(tool)
+			)
+		);
+		final int messageId = messageIds.incrementAndGet();
+		final Annotations annotations = stub(Annotations.class, Map.of());
+
+		return Map.of(
+			"toolSource",
+			__ -> source,
+			"messageId",
+			__ -> messageId,
+			"annotations",
+			__ -> annotations
+		);
+	}
+
+	/**
+		Wraps a request as passed to the HTTP handlers.
+
+		@param request The sent request.
+		@param tool The tool sending the request.
+		@return The request to be sent.
+	*/
+	public static HttpRequestToBeSent requestToBeSent(
+		HttpRequest request,
+		ToolType tool
+	) {
+		return stub(
+			HttpRequestToBeSent.class,
+			methods(
+				requestMethods(
+					request.httpService(),
+					request.toByteArray().getBytes()
+				),
+				handlerMethods(tool)
+			)
+		);
+	}
+
+	/**
+		Wraps a response as passed to the HTTP handlers.
+
+		@param response The received response.
+		@param initiatingRequest The request the response answers.
+		@param tool The tool that sent the request.
+		@return The received response.
+	*/
+	public static HttpResponseReceived responseReceived(
+		HttpResponse response,
+		HttpRequest initiatingRequest,
+		ToolType tool
+	) {
+		return stub(
+			HttpResponseReceived.class,
+			methods(
+				responseMethods(response.toByteArray().getBytes()),
+				handlerMethods(tool),
+				Map.of("initiatingRequest", __ -> initiatingRequest)
+			)
+		);
+	}
+
+	private static HttpService httpServiceFrom(Object[] args) {
+		if (args.length == 3) {
+			return httpService((String) args[0], (int) args[1], (boolean) args[2]);
+		}
+		if (args.length == 2) {
+			final boolean secure = (boolean) args[1];
+			return httpService((String) args[0], secure ? 443 : 80, secure);
+		}
+
+		final URI uri = URI.create((String) args[0]);
+		final boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+		return httpService(
+			uri.getHost(),
+			uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80,
+			secure
+		);
+	}
+
+	/**
+		Replaces the Montoya object factory, which is only set by Burp,
+		so the static constructors (e.g. ByteArray.byteArray()) work outside of it.
+	*/
+	public static void installObjectFactory() {
+		ObjectFactoryLocator.FACTORY =
+			stub(
+				MontoyaObjectFactory.class,
+				Map.of(
+					"byteArray",
+					args -> byteArray(bytes(args[0])),
+					"byteArrayOfLength",
+					args -> byteArray(new byte[(int) args[0]]),
+					"httpService",
+					FakeHttp::httpServiceFrom,
+					"httpHeader",
+					args ->
+						args.length == 2
+							? httpHeader((String) args[0], (String) args[1])
+							: httpHeader(
+								((String) args[0]).split(":", 2)[0].trim(),
+								((String) args[0]).split(":", 2)[1].trim()
+							),
+					"httpRequest",
+					args ->
+						switch (args.length) {
+							case 0 -> httpRequest(null, new byte[0]);
+							case 1 -> httpRequest(null, bytes(args[0]));
+							default -> httpRequest((HttpService) args[0], bytes(args[1]));
+						},
+					"httpResponse",
+					args -> httpResponse(args.length == 0 ? new byte[0] : bytes(args[0])),
+					"requestResult",
+					args ->
+						stub(
+							RequestToBeSentAction.class,
+							Map.of(
+								"request",
+								__ -> args[0],
+								"annotations",
+								__ -> args.length > 1 ? args[1] : null
+							)
+						),
+					"responseResult",
+					args ->
+						stub(
+							ResponseReceivedAction.class,
+							Map.of(
+								"response",
+								__ -> args[0],
+								"annotations",
+								__ -> args.length > 1 ? args[1] : null
+							)
+						)
+				)
+			);
+	}
+}
@@ -0,0 +1,252 @@
+package lexfo.scalpel;
+
+import static lexfo.scalpel.Stubs.stub;
+
+import burp.api.montoya.MontoyaApi;
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.core.Registration;
+import burp.api.montoya.extension.Extension;
+import burp.api.montoya.extension.ExtensionUnloadingHandler;
+import burp.api.montoya.logging.Logging;
+import burp.api.montoya.persistence.PersistedObject;
+import burp.api.montoya.persistence.Persistence;
+import burp.api.montoya.persistence.Preferences;
+import burp.api.montoya.ui.Selection;
+import burp.api.montoya.ui.Theme;
+import burp.api.montoya.ui.UserInterface;
+import burp.api.montoya.ui.editor.RawEditor;
+import burp.api.montoya.ui.swing.SwingUtils;
+import java.awt.Font;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.swing.JPanel;
+
+/**
+  Headless MontoyaApi, to run Scalpel on a plain JVM. (JUnit tests, benchmarks, load tests)
+  <p>
+  Provides the Logging, Persistence, UserInterface and Extension parts Scalpel uses,
+  and records what Scalpel sends to them so tests can assert on it.
+  HTTP messages are built with {@link FakeHttp}.
+*/
+public class FakeMontoya {
+
+	/**
+		Project ID stored in the extension data, so every run reuses the same project config.
+	*/
+	public static final String PROJECT_ID = "headless";
+
+	/** Lines logged to the extension output. */
+	public final List<String> output = new CopyOnWriteArrayList<>();
+
+	/** Lines logged to the extension errors. */
+	public final List<String> errors = new CopyOnWriteArrayList<>();
+
+	/** The persisted extension data. */
+	public final Map<String, String> extensionData = new ConcurrentHashMap<>(
+		Map.of("scalpel.projectID", PROJECT_ID)
+	);
+
+	/** The persisted global preferences. */
+	public final Map<String, String> preferences = new ConcurrentHashMap<>();
+
+	/** The registered unloading handlers, run by {@link #unload()}. */
+	public final List<ExtensionUnloadingHandler> unloadingHandlers = new CopyOnWriteArrayList<>();
+
+	private final MontoyaApi api;
+
+	/**
+		Creates the API and installs the {@link FakeHttp} object factory.
+	*/
+	public FakeMontoya() {
+		FakeHttp.installObjectFactory();
+
+		final Logging logging = logging();
+		final Persistence persistence = persistence();
+		final UserInterface userInterface = userInterface();
+		final Extension extension = extension();
+
+		this.api =
+			stub(
+				MontoyaApi.class,
+				Map.of(
+					"logging",
+					__ -> logging,
+					"persistence",
+					__ -> persistence,
+					"userInterface",
+					__ -> userInterface,
+					"extension",
+					__ -> extension
+				)
+			);
+	}
+
+	/**
+		Returns the headless API.
+
+		@return The API.
+	*/
+	public MontoyaApi api() {
+		return api;
+	}
+
+	/**
+		Runs the unloading handlers, as Burp does when the extension is unloaded.
+	*/
+	public void unload() {
+		unloadingHandlers.forEach(ExtensionUnloadingHandler::extensionUnloaded);
+		unloadingHandlers.clear();
+	}
+
+	private static final Registration REGISTRATION = stub(
+		Registration.class,
+		Map.of()
+	);
+
+	private PrintStream printTo(List<String> lines) {
+		return new PrintStream(
+			new OutputStream() {
+				private final StringBuilder line = new StringBuilder();
+
+				@Override
+				public synchronized void write(int b) {
+					if (b == '\n') {
+						lines.add(line.toString());
+						line.setLength(0);
+					} else {
+						line.append((char) b);
+					}
+				}
+			},
+			true
+		);
+	}
+
+	private Logging logging() {
+		final PrintStream out = printTo(output);
+		final PrintStream err = printTo(errors);
+
+		return stub(
+			Logging.class,
+			Map.of(
+				"output",
+				__ -> out,
+				"error",
+				__ -> err,
+				"logToOutput",
+				args -> output.add(String.valueOf(args[0])),
+				"logToError",
+				args -> errors.add(String.valueOf(args[0]))
+			)
+		);
+	}
+
+	private static Map<String, Function<Object[], Object>> stringStore(
+		Map<String, String> data
+	) {
+		return Map.of(
+			"getString",
+			args -> data.get((String) args[0]),
+			"setString",
+			args -> data.put((String) args[0], (String) args[1]),
+			"deleteString",
+			args -> data.remove((String) args[0]),
+			"stringKeys",
+			__ -> Collections.unmodifiableSet(data.keySet())
+		);
+	}
+
+	private Persistence persistence() {
+		final PersistedObject extensionDataObject = stub(
+			PersistedObject.class,
+			stringStore(extensionData)
+		);
+		final Preferences preferencesObject = stub(
+			Preferences.class,
+			stringStore(preferences)
+		);
+
+		return stub(
+			Persistence.class,
+			Map.of(
+				"extensionData",
+				__ -> extensionDataObject,
+				"preferences",
+				__ -> preferencesObject
+			)
+		);
+	}
+
+	/**
+		A raw editor keeping its content, without any Swing rendering.
+	*/
+	private static RawEditor rawEditor() {
+		final ByteArray[] contents = { FakeHttp.byteArray(new byte[0]) };
+		final JPanel component = new JPanel();
+
+		return stub(
+			RawEditor.class,
+			Map.of(
+				"setContents",
+				args -> contents[0] = (ByteArray) args[0],
+				"getContents",
+				__ -> contents[0],
+				"uiComponent",
+				__ -> component,
+				"selection",
+				__ -> Optional.<Selection>empty()
+			)
+		);
+	}
+
+	private UserInterface userInterface() {
+		final Font font = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+		final SwingUtils swingUtils = stub(SwingUtils.class, Map.of());
+
+		return stub(
+			UserInterface.class,
+			Map.of(
+				"createRawEditor",
+				__ -> rawEditor(),
+				"currentEditorFont",
+				__ -> font,
+				"currentDisplayFont",
+				__ -> font,
+				"currentTheme",
+				__ -> Theme.LIGHT,
+				"swingUtils",
+				__ -> swingUtils,
+				"registerSuiteTab",
+				__ -> REGISTRATION,
+				"registerHttpRequestEditorProvider",
+				__ -> REGISTRATION,
+				"registerHttpResponseEditorProvider",
+				__ -> REGISTRATION,
+				"registerContextMenuItemsProvider",
+				__ -> REGISTRATION
+			)
+		);
+	}
+
+	private Extension extension() {
+		return stub(
+			Extension.class,
+			Map.of(
+				"registerUnloadingHandler",
+				args -> {
+					unloadingHandlers.add((ExtensionUnloadingHandler) args[0]);
+					return REGISTRATION;
+				},
+				"filename",
+				__ -> ""
+			)
+		);
+	}
+}
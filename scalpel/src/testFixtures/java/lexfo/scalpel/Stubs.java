@@ -0,0 +1,77 @@
+package lexfo.scalpel;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+  Minimal interface implementations for running Scalpel outside of Burp.
+  <p>
+  Stubs only implement the methods used by the exercised code,
+  so Montoya API updates don't break them.
+*/
+public final class Stubs {
+
+	private Stubs() {}
+
+	/**
+		Creates a proxy implementing the given methods by name,
+		the other methods return null, false or 0.
+
+		@param itf The interface to implement.
+		@param methods The implemented methods, called with the call arguments. (an empty array when there are none)
+		@return The proxy.
+	*/
+	@SuppressWarnings("unchecked")
+	public static <T> T stub(
+		Class<T> itf,
+		Map<String, Function<Object[], Object>> methods
+	) {
+		return (T) Proxy.newProxyInstance(
+			itf.getClassLoader(),
+			new Class<?>[] { itf },
+			(proxy, method, args) -> {
+				final Function<Object[], Object> impl = methods.get(
+					method.getName()
+				);
+				if (impl != null) {
+					return impl.apply(args == null ? new Object[0] : args);
+				}
+
+				switch (method.getName()) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "toString":
+						return itf.getSimpleName() + "(stub)";
+				}
+
+				// Default value of the return type. (null, false, 0)
+				final Class<?> type = method.getReturnType();
+				return type.isPrimitive() && type != void.class
+					? Array.get(Array.newInstance(type, 1), 0)
+					: null;
+			}
+		);
+	}
+
+	/**
+		Creates a mutable method map, to combine the methods of several stubs.
+
+		@param maps The method maps, the last ones take precedence.
+		@return The merged methods.
+	*/
+	@SafeVarargs
+	public static Map<String, Function<Object[], Object>> methods(
+		Map<String, Function<Object[], Object>>... maps
+	) {
+		final Map<String, Function<Object[], Object>> merged = new HashMap<>();
+		for (final Map<String, Function<Object[], Object>> map : maps) {
+			merged.putAll(map);
+		}
+		return merged;
+	}
+}